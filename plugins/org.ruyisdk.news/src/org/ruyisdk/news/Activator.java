@@ -7,6 +7,7 @@ import org.osgi.framework.FrameworkUtil;
 import org.ruyisdk.core.util.PluginLogger;
 import org.ruyisdk.news.model.NewsFetchService;
 import org.ruyisdk.news.model.NewsManager;
+import org.ruyisdk.news.model.NewsStore;
 
 /**
  * The activator class controls the plug-in life cycle.
@@ -39,7 +40,7 @@ public class Activator extends AbstractUIPlugin {
         super.start(context);
         plugin = this;
         newsManager = new NewsManager();
-        service = new NewsFetchService();
+        service = new NewsFetchService(new NewsStore(NewsStore.getDefaultDir()));
 
         LOGGER.logInfo("News plugin started");
     }
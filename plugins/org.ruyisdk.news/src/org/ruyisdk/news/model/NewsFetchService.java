@@ -1,59 +1,249 @@
 package org.ruyisdk.news.model;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.ui.progress.IProgressConstants;
 import org.ruyisdk.core.util.PluginLogger;
 import org.ruyisdk.news.Activator;
+import org.ruyisdk.news.util.MarkdownRenderer;
 import org.ruyisdk.ruyi.services.RuyiCli;
+import org.ruyisdk.ruyi.services.RuyiCliException;
 
-/** Service for fetching news data via the Ruyi CLI. */
+/**
+ * Service for fetching news data via the Ruyi CLI.
+ *
+ * <p>
+ * Fetched lists and bodies are kept in a {@link NewsStore}, so the news view can show the last
+ * known list right away and open bodies read before without running ruyi. Recently used bodies are
+ * also kept in memory in a {@link NewsHtmlCache}.
+ */
 public class NewsFetchService {
     private static final PluginLogger LOGGER = Activator.getLogger();
 
-    /** Fetches news details asynchronously. */
-    public CompletableFuture<String> fetchNewsDetailsAsync(String id) {
-        final var future = new CompletableFuture<String>();
-        final var job = Job.create("Fetching News Details", monitor -> {
-            LOGGER.logInfo("Fetching news details, id=" + id);
+    /** Maximum number of rendered bodies kept in memory. */
+    public static final int HTML_CACHE_CAPACITY = 64;
+
+    /** Maximum number of news bodies fetched at the same time. */
+    public static final int MAX_CONCURRENT_FETCHES = 2;
+
+    private final NewsStore store;
+    private final NewsHtmlCache htmlCache = new NewsHtmlCache(HTML_CACHE_CAPACITY);
+    private final JobGroup fetchGroup = new JobGroup("News Details", MAX_CONCURRENT_FETCHES, 0);
+    private final Map<String, CompletableFuture<Loaded>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a service backed by the given store.
+     *
+     * @param store local news store
+     */
+    public NewsFetchService(NewsStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Loads the news list saved by the last successful {@link #fetchNewsListAsync()}.
+     *
+     * @return future stored items, empty if there are none or the store is unreadable
+     */
+    public CompletableFuture<List<NewsItem>> loadStoredNewsListAsync() {
+        final var future = new CompletableFuture<List<NewsItem>>();
+        final var job = Job.create("Loading Stored News", monitor -> {
             try {
-                final var result = RuyiCli.readNewsItem(id);
-                if (result == null || result.getContent() == null) {
-                    // TODO: do not use runtimeException.
-                    throw new RuntimeException("News item not found, id=" + id);
-                }
-                LOGGER.logInfo("Fetched news details, id=" + id);
-                future.complete(result.getContent());
-                return Status.OK_STATUS;
-            } catch (Exception e) {
-                future.completeExceptionally(e);
-                return Status.error("Failed to read news details, id=" + id, e);
+                future.complete(store.loadItems());
+            } catch (IOException e) {
+                LOGGER.logWarning("Ignoring unreadable news store: " + e.getMessage());
+                future.complete(List.of());
+            }
+            return Status.OK_STATUS;
+        });
+        job.setSystem(true);
+        job.schedule();
+        return future;
+    }
+
+    /**
+     * Fetches news details asynchronously. Bodies are looked up in memory, then in the store, and
+     * only then read with ruyi. Concurrent requests for the same item share one fetch, and at most
+     * {@link #MAX_CONCURRENT_FETCHES} fetches run at once.
+     *
+     * @param id news item id
+     * @param markRead whether the item is unread and should be marked read
+     * @return future markdown and rendered HTML
+     */
+    public CompletableFuture<NewsStore.Entry> fetchNewsDetailsAsync(String id, boolean markRead) {
+        return load(id).thenApply(loaded -> {
+            // Reading the body with ruyi has already marked the item read
+            if (markRead && !loaded.readByRuyi()) {
+                markOpenedReadAsync(id);
             }
+            return loaded.entry();
         });
+    }
+
+    /**
+     * Warms the memory cache with the bodies of the given read items in the background, at low
+     * priority. Bodies missing from the store are read with a single ruyi invocation. Unread items
+     * are skipped: {@code ruyi news read} would mark them read.
+     *
+     * @param items items to prefetch, most wanted first
+     */
+    public void prefetchAsync(List<NewsItem> items) {
+        final var batch = new LinkedHashMap<String, CompletableFuture<Loaded>>();
+        for (final var item : items) {
+            final var id = item.getId();
+            if (item.getUnread() || htmlCache.contains(id)) {
+                continue;
+            }
+            final var future = register(id);
+            if (future != null) {
+                batch.put(id, future);
+            }
+        }
+        if (!batch.isEmpty()) {
+            scheduleLoad(batch, true);
+        }
+    }
+
+    /**
+     * Body of a news item and whether ruyi has just read (and so marked read) it.
+     */
+    private record Loaded(NewsStore.Entry entry, boolean readByRuyi) {
+    }
+
+    private CompletableFuture<Loaded> load(String id) {
+        final var cached = htmlCache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(new Loaded(cached, false));
+        }
+        final var future = register(id);
+        if (future == null) {
+            final var pending = inFlight.get(id);
+            // null if the other fetch has finished in the meantime
+            return pending != null ? pending : load(id);
+        }
+        scheduleLoad(Map.of(id, future), false);
+        return future;
+    }
+
+    /**
+     * Registers a fetch of an item.
+     *
+     * @return the future to complete, or {@code null} if the item is already being fetched
+     */
+    private CompletableFuture<Loaded> register(String id) {
+        final var future = new CompletableFuture<Loaded>();
+        if (inFlight.putIfAbsent(id, future) != null) {
+            return null;
+        }
+        future.whenComplete((loaded, e) -> inFlight.remove(id, future));
+        return future;
+    }
+
+    /** Schedules loading the bodies of {@code batch} from the store or else with ruyi. */
+    private void scheduleLoad(Map<String, CompletableFuture<Loaded>> batch, boolean prefetch) {
+        final var job =
+                Job.create(prefetch ? "Prefetching News" : "Fetching News Details", monitor -> {
+                    try {
+                        final var missing = new ArrayList<String>();
+                        batch.forEach((id, future) -> {
+                            final var stored = readStoredEntry(id);
+                            if (stored != null) {
+                                htmlCache.put(id, stored);
+                                future.complete(new Loaded(stored, false));
+                            } else {
+                                missing.add(id);
+                            }
+                        });
+                        if (missing.isEmpty()) {
+                            return Status.OK_STATUS;
+                        }
+
+                        LOGGER.logInfo("Fetching news details, ids=" + missing);
+                        for (final var result : RuyiCli.readNewsItems(missing)) {
+                            final var future = batch.get(result.getId());
+                            if (future == null || result.getContent() == null) {
+                                continue;
+                            }
+                            final var entry = render(result.getContent());
+                            storeEntry(result.getId(), entry);
+                            future.complete(new Loaded(entry, true));
+                        }
+                        LOGGER.logInfo("Fetched news details, ids=" + missing);
+
+                        // Fails only the items ruyi printed nothing for
+                        batch.forEach((id, future) -> {
+                            future.completeExceptionally(RuyiCliException
+                                    .invalidArgument("News item not found, id=" + id));
+                        });
+                        return Status.OK_STATUS;
+                    } catch (Exception e) {
+                        batch.values().forEach(future -> future.completeExceptionally(e));
+                        if (prefetch) {
+                            LOGGER.logInfo(
+                                    "Skipped prefetching news, ids=" + batch.keySet() + ": " + e);
+                            return Status.OK_STATUS;
+                        }
+                        return Status.error("Failed to read news details, ids=" + batch.keySet(),
+                                e);
+                    }
+                });
+        job.setJobGroup(fetchGroup);
+        if (prefetch) {
+            job.setSystem(true);
+            job.setPriority(Job.DECORATE);
+        } else {
+            job.setPriority(Job.SHORT);
+        }
         // no error dialog
         job.setProperty(IProgressConstants.NO_IMMEDIATE_ERROR_PROMPT_PROPERTY, Boolean.TRUE);
         job.schedule();
-        return future;
     }
 
-    /** Fetches the news list asynchronously. */
+    private static NewsStore.Entry render(String markdown) {
+        return new NewsStore.Entry(markdown, MarkdownRenderer.renderToHtml(markdown));
+    }
+
+    /** Caches and stores a body that ruyi has just read. */
+    private void storeEntry(String id, NewsStore.Entry entry) {
+        htmlCache.put(id, entry);
+        try {
+            store.saveEntry(id, entry);
+        } catch (IOException e) {
+            LOGGER.logWarning("Failed to store news details, id=" + id, e);
+        }
+    }
+
+    /** Marks an opened item read in ruyi, which showed it from memory or from the store. */
+    private void markOpenedReadAsync(String id) {
+        final var job = Job.create("Marking News Read", monitor -> {
+            try {
+                RuyiCli.readNewsItem(id);
+            } catch (Exception e) {
+                LOGGER.logWarning("Failed to mark news item read, id=" + id, e);
+            }
+            return Status.OK_STATUS;
+        });
+        job.setSystem(true);
+        job.schedule();
+    }
+
+    /** Fetches the news list asynchronously and saves it to the store. */
     public CompletableFuture<List<NewsItem>> fetchNewsListAsync() {
         final var future = new CompletableFuture<List<NewsItem>>();
         final var job = Job.create("Fetching News List", monitor -> {
             LOGGER.logInfo("Fetching news list");
             try {
-                final var fetchedItems = RuyiCli.listNewsItems(false);
-                LOGGER.logInfo(String.format("Fetched news list: count=%d", fetchedItems.size()));
-
                 final var newsList = new ArrayList<NewsItem>();
-                for (final var item : fetchedItems) {
-                    if (item == null) {
-                        continue;
-                    }
+                RuyiCli.streamNewsItems(false, item -> {
                     final var ordObj = item.getOrd();
                     final var ord = ordObj == null ? -1 : ordObj.intValue();
                     final var title = item.getTitle() == null ? "" : item.getTitle();
@@ -61,9 +251,16 @@ public class NewsFetchService {
                     final var isRead = item.isRead();
                     final var unread = isRead == null || !isRead.booleanValue();
                     newsList.add(new NewsItem(ord, title, id, unread));
-                }
+                }, monitor);
+                LOGGER.logInfo(String.format("Fetched news list: count=%d", newsList.size()));
+
                 newsList.sort(Comparator.comparingInt(NewsItem::getOrd).reversed());
                 future.complete(newsList);
+                try {
+                    store.saveItems(newsList);
+                } catch (IOException e) {
+                    LOGGER.logWarning("Failed to store news list", e);
+                }
                 return Status.OK_STATUS;
             } catch (Exception e) {
                 future.completeExceptionally(e);
@@ -75,4 +272,13 @@ public class NewsFetchService {
         job.schedule();
         return future;
     }
+
+    private NewsStore.Entry readStoredEntry(String id) {
+        try {
+            return store.readEntry(id);
+        } catch (IOException e) {
+            LOGGER.logWarning("Ignoring unreadable stored news details, id=" + id, e);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package org.ruyisdk.news.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory LRU cache of rendered news bodies, keyed by news id.
+ *
+ * <p>
+ * Sits in front of {@link NewsStore}: bodies the user is clicking through, or that the prefetcher
+ * has just warmed, are served without touching the disk. Thread-safe.
+ */
+public final class NewsHtmlCache {
+
+    private final Map<String, NewsStore.Entry> entries;
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity maximum number of bodies kept; the least recently used is evicted first
+     */
+    public NewsHtmlCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NewsStore.Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached body and marks it most recently used.
+     *
+     * @param id news item id
+     * @return the body, or {@code null} if not cached
+     */
+    public synchronized NewsStore.Entry get(String id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Returns whether a body is cached, without changing its recency.
+     *
+     * @param id news item id
+     * @return true if cached
+     */
+    public synchronized boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Caches a body as most recently used, evicting the least recently used one if full.
+     *
+     * @param id news item id
+     * @param entry the body
+     */
+    public synchronized void put(String id, NewsStore.Entry entry) {
+        entries.put(id, entry);
+    }
+
+    /**
+     * Returns the number of cached bodies.
+     *
+     * @return entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+}
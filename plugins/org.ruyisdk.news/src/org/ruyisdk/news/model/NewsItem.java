@@ -2,6 +2,7 @@ package org.ruyisdk.news.model;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.Locale;
 
 /**
  * A news item with ordinal/index, title, id, unread status, and details.
@@ -16,6 +17,7 @@ public class NewsItem {
     private String details = "";
     private String detailsHtml = "";
     private boolean detailsFetched = false;
+    private String searchKey; // Lower-cased title and id, built on first use
 
     /**
      * Creates a news item.
@@ -83,6 +85,7 @@ public class NewsItem {
      * @param title the title
      */
     public void setTitle(String title) {
+        searchKey = null;
         pcs.firePropertyChange("title", this.title, this.title = title);
     }
 
@@ -101,9 +104,25 @@ public class NewsItem {
      * @param id the id
      */
     public void setId(String id) {
+        searchKey = null;
         pcs.firePropertyChange("id", this.id, this.id = id);
     }
 
+    /**
+     * Returns the title and id folded to lower case, for case-insensitive substring search. The key
+     * is computed once and kept until the title or id changes.
+     *
+     * @return the search key
+     */
+    public String getSearchKey() {
+        var key = searchKey;
+        if (key == null) {
+            key = (title + "\n" + id).toLowerCase(Locale.ROOT);
+            searchKey = key;
+        }
+        return key;
+    }
+
     /**
      * Returns the details text.
      *
@@ -0,0 +1,180 @@
+package org.ruyisdk.news.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.ruyisdk.core.basedir.XdgDirs;
+import org.ruyisdk.core.config.Constants;
+
+/**
+ * Local on-disk copy of the news list and of the news bodies read so far.
+ *
+ * <p>
+ * The list metadata (ordinal, id, title, unread flag) is kept in one small gzip-compressed index
+ * file, replaced as a whole after each successful sync. Each body is stored once under its id, as
+ * the markdown returned by {@code ruyi news read} plus the rendered HTML, so a news item that has
+ * been opened before is shown again without running ruyi or rendering the markdown.
+ *
+ * <p>
+ * All methods are synchronized and do blocking file I/O; call them off the UI thread.
+ */
+public final class NewsStore {
+
+    private static final int MAGIC = 0x524e5753; // "RNWS"
+    private static final int FORMAT_VERSION = 1;
+    private static final String INDEX_FILE = "index.bin";
+    private static final String ITEMS_DIR = "items";
+
+    /**
+     * A stored news body.
+     *
+     * @param markdown body as returned by {@code ruyi news read}
+     * @param html body rendered for the details browser
+     */
+    public record Entry(String markdown, String html) {
+    }
+
+    private final Path dir;
+
+    /**
+     * Creates a store in the given directory. Nothing is created on disk until the first write.
+     *
+     * @param dir store directory
+     */
+    public NewsStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Returns the default store directory.
+     *
+     * @return path under the IDE's XDG data directory
+     */
+    public static Path getDefaultDir() {
+        return XdgDirs.getDataDir(Constants.AppInfo.AppDir).resolve("news");
+    }
+
+    /**
+     * Loads the news list saved by the last sync.
+     *
+     * @return stored items in saved order; empty if nothing has been saved yet
+     * @throws IOException if the index is unreadable or of another format version
+     */
+    public synchronized List<NewsItem> loadItems() throws IOException {
+        final var file = dir.resolve(INDEX_FILE);
+        try (var in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported news index format: " + file);
+            }
+            final var count = in.readInt();
+            final var items = new ArrayList<NewsItem>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(new NewsItem(in.readInt(), in.readUTF(), in.readUTF(), in.readBoolean()));
+            }
+            return items;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (RuntimeException e) {
+            // e.g. negative counts from a corrupt file
+            throw new IOException("Corrupt news index: " + file, e);
+        }
+    }
+
+    /**
+     * Replaces the stored news list.
+     *
+     * @param items items in display order
+     * @throws IOException if writing fails
+     */
+    public synchronized void saveItems(List<NewsItem> items) throws IOException {
+        writeAtomically(dir.resolve(INDEX_FILE), tmp -> {
+            try (var out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(items.size());
+                for (final var item : items) {
+                    out.writeInt(item.getOrd());
+                    out.writeUTF(item.getTitle());
+                    out.writeUTF(item.getId());
+                    out.writeBoolean(item.getUnread());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the stored body of a news item.
+     *
+     * @param id news item id
+     * @return the body, or {@code null} if it has not been stored
+     * @throws IOException if a stored file cannot be read
+     */
+    public synchronized Entry readEntry(String id) throws IOException {
+        final var base = itemPath(id);
+        try {
+            return new Entry(Files.readString(base.resolveSibling(base.getFileName() + ".md")),
+                    Files.readString(base.resolveSibling(base.getFileName() + ".html")));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the body of a news item, replacing any previous one.
+     *
+     * @param id news item id
+     * @param entry the body
+     * @throws IOException if writing fails
+     */
+    public synchronized void saveEntry(String id, Entry entry) throws IOException {
+        final var base = itemPath(id);
+        // HTML last: readEntry only finds an entry once both files exist
+        writeAtomically(base.resolveSibling(base.getFileName() + ".md"),
+                tmp -> Files.writeString(tmp, entry.markdown(), StandardCharsets.UTF_8));
+        writeAtomically(base.resolveSibling(base.getFileName() + ".html"),
+                tmp -> Files.writeString(tmp, entry.html(), StandardCharsets.UTF_8));
+    }
+
+    /** Maps an id to a file name that is safe on every file system. */
+    private Path itemPath(String id) {
+        final var safe = id.matches("[A-Za-z0-9][A-Za-z0-9._-]{0,100}") ? id
+                : "x-" + HexFormat.of().formatHex(id.getBytes(StandardCharsets.UTF_8));
+        return dir.resolve(ITEMS_DIR).resolve(safe);
+    }
+
+    private interface FileWriter {
+        void write(Path tmp) throws IOException;
+    }
+
+    private static void writeAtomically(Path file, FileWriter writer) throws IOException {
+        Files.createDirectories(file.getParent());
+        final var tmp =
+                Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            writer.write(tmp);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -15,9 +15,6 @@ public class NewsDetailsViewModel {
 
     private NewsFetchService service;
 
-    private boolean isFetching = false;
-
-
     /**
      * Creates a new view model.
      *
@@ -36,23 +33,20 @@ public class NewsDetailsViewModel {
      */
 
     public void onAcquireNewsDetails(NewsItem selected) {
+        // No single-fetch guard: the service shares in-flight fetches and limits concurrency
         if (selected.getDetailsFetched()) {
             return;
         }
-        if (isFetching) {
-            return;
-        }
 
         LOGGER.logInfo("News details requested: id=" + selected.getId());
 
+        final var markRead = selected.getUnread();
         selected.setUnread(false);
         selected.setDetailsHtml(MarkdownRenderer.renderToHtml("*fetching news details...*"));
-        isFetching = true;
 
-        service.fetchNewsDetailsAsync(selected.getId()).thenAccept(result -> {
-            final var markdown = result == null ? "" : result;
-            selected.setDetails(markdown);
-            selected.setDetailsHtml(MarkdownRenderer.renderToHtml(markdown));
+        service.fetchNewsDetailsAsync(selected.getId(), markRead).thenAccept(entry -> {
+            selected.setDetails(entry.markdown());
+            selected.setDetailsHtml(entry.html());
             selected.setDetailsFetched(true);
         }).exceptionally(e -> {
             // unwrap CompletionException
@@ -68,8 +62,6 @@ public class NewsDetailsViewModel {
             selected.setDetailsHtml(MarkdownRenderer.renderToHtml(markdown));
             selected.setDetailsFetched(false);
             return null;
-        }).whenComplete((result, e) -> {
-            isFetching = false;
         });
     }
 }
@@ -5,6 +5,8 @@ import java.beans.PropertyChangeSupport;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.WritableList;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
@@ -18,7 +20,11 @@ import org.ruyisdk.news.model.NewsItem;
  * View model for the news list view.
  */
 public class NewsListViewModel implements IDialogStatusProvider {
+    /** Number of most recent items whose bodies are prefetched after an update. */
+    private static final int PREFETCH_COUNT = 8;
+
     private boolean isFetching = false;
+    private boolean isSynced = false;
     private String infoText = UpdatingState.notUpdated;
 
     private NewsFetchService service;
@@ -33,6 +39,7 @@ public class NewsListViewModel implements IDialogStatusProvider {
         private static final String updating = "Updating...";
         private static final String updatedTemplate = "Last Updated on %s";
         private static final String updateFailed = "Failed to update news list";
+        private static final String stored = "Showing stored news";
     }
 
     /**
@@ -108,6 +115,25 @@ public class NewsListViewModel implements IDialogStatusProvider {
         return isFetching;
     }
 
+    /**
+     * Shows the news list saved by the last update, unless an update has already completed. Lets
+     * the view open with content while ruyi is busy or offline.
+     */
+    public void onLoadStoredNewsListAsync() {
+        service.loadStoredNewsListAsync().thenAccept(result -> {
+            observableNewsList.getRealm().asyncExec(() -> {
+                if (!isSynced && observableNewsList.isEmpty() && !result.isEmpty()) {
+                    observableNewsList.addAll(result);
+                    if (isFetching()) {
+                        setInfoText(UpdatingState.updating);
+                    } else {
+                        setInfoText(UpdatingState.stored);
+                    }
+                }
+            });
+        });
+    }
+
     /**
      * Triggers an asynchronous update of the news list.
      */
@@ -121,12 +147,14 @@ public class NewsListViewModel implements IDialogStatusProvider {
 
         service.fetchNewsListAsync().thenAccept(result -> {
             observableNewsList.getRealm().asyncExec(() -> {
-                observableNewsList.clear();
                 if (result != null) {
-                    observableNewsList.addAll(result);
+                    isSynced = true;
+                    mergeNewsList(result);
+                    service.prefetchAsync(result.stream().limit(PREFETCH_COUNT).toList());
                     setInfoText(String.format(UpdatingState.updatedTemplate, LocalDateTime.now()
                             .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
                 } else {
+                    observableNewsList.clear();
                     setInfoText(UpdatingState.updateFailed);
                 }
             });
@@ -134,7 +162,7 @@ public class NewsListViewModel implements IDialogStatusProvider {
             // unwrap CompletionException
             final var cause = e.getCause();
             observableNewsList.getRealm().asyncExec(() -> {
-                observableNewsList.clear();
+                // Keep showing the stored or previously fetched list
                 setInfoText(UpdatingState.updateFailed);
                 lastStatus.setValue(org.eclipse.core.runtime.Status.error(null, cause));
             });
@@ -144,6 +172,43 @@ public class NewsListViewModel implements IDialogStatusProvider {
         });
     }
 
+    /**
+     * Brings the shown list in line with a fetched one. Items already shown are kept, with their
+     * fetched details, and only updated; only new ordinals are added. The common case of new items
+     * on top inserts them without touching the rest of the table.
+     */
+    private void mergeNewsList(List<NewsItem> fetched) {
+        final var shown = new HashMap<String, NewsItem>();
+        for (final var item : observableNewsList) {
+            shown.put(item.getId(), item);
+        }
+        final var merged = new ArrayList<NewsItem>(fetched.size());
+        var added = 0;
+        for (final var item : fetched) {
+            final var existing = shown.get(item.getId());
+            if (existing == null) {
+                merged.add(item);
+                added++;
+                continue;
+            }
+            existing.setOrd(item.getOrd());
+            existing.setTitle(item.getTitle());
+            // An item opened here may not be marked read in ruyi yet
+            if (!item.getUnread() || !existing.getDetailsFetched()) {
+                existing.setUnread(item.getUnread());
+            }
+            merged.add(existing);
+        }
+
+        // If every shown item follows in unchanged order, the first "added" items are the new ones
+        if (added > 0 && merged.subList(added, merged.size()).equals(observableNewsList)) {
+            observableNewsList.addAll(0, merged.subList(0, added));
+        } else if (!merged.equals(observableNewsList)) {
+            observableNewsList.clear();
+            observableNewsList.addAll(merged);
+        }
+    }
+
     @Override
     public IObservableValue<IStatus> getLastStatus() {
         return lastStatus;
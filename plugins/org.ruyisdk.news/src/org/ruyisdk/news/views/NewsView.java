@@ -1,6 +1,6 @@
 package org.ruyisdk.news.views;
 
-import java.util.regex.Pattern;
+import java.util.Locale;
 import org.eclipse.core.databinding.DataBindingContext;
 import org.eclipse.core.databinding.beans.typed.BeanProperties;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
@@ -40,6 +40,9 @@ import org.ruyisdk.news.viewmodel.NewsListViewModel;
  * View showing the news list and details.
  */
 public class NewsView extends ViewPart {
+    /** Quiet period after the last keystroke before the table is filtered again. */
+    private static final int SEARCH_DELAY_MILLIS = 200;
+
     private Composite topComposite;
     private Composite middleComposite;
     private Composite bottomComposite;
@@ -71,7 +74,8 @@ public class NewsView extends ViewPart {
         // initialize states
         toggleDetailControls(false);
 
-        // initial data load
+        // initial data load: stored list first, then sync with ruyi
+        newsListViewModel.onLoadStoredNewsListAsync();
         newsListViewModel.onUpdateNewsListAsync();
     }
 
@@ -182,19 +186,19 @@ public class NewsView extends ViewPart {
     }
 
     private void registerEvents() {
+        // Delayed observable: a burst of keystrokes refilters the table only once
+        final var searchTextObservable = WidgetProperties.text(SWT.Modify)
+                .observeDelayed(SEARCH_DELAY_MILLIS, searchTextBox);
+        final var unreadObservable = WidgetProperties.buttonSelection().observe(unreadCheckBox);
         new ComputedValue<NewsListViewerFilter>() {
             @Override
             protected NewsListViewerFilter calculate() {
-                final var newsFilter = new NewsListViewerFilter();
-                newsFilter.setPattern(
-                        WidgetProperties.text(SWT.Modify).observe(searchTextBox).getValue());
-                newsFilter.setOnlyUnread(
-                        WidgetProperties.buttonSelection().observe(unreadCheckBox).getValue());
-                return newsFilter;
+                return new NewsListViewerFilter(searchTextObservable.getValue(),
+                        unreadObservable.getValue());
             }
         }.addValueChangeListener(e -> {
-            tableViewer.resetFilters();
-            tableViewer.addFilter(e.diff.getNewValue());
+            // setFilters refreshes once, resetFilters + addFilter would refresh twice
+            tableViewer.setFilters(e.diff.getNewValue());
         });
 
         tableViewer.getTable().addMouseListener(new MouseAdapter() {
@@ -276,29 +280,27 @@ public class NewsView extends ViewPart {
         detailBrowser.requestLayout();
     }
 
+    /**
+     * Filters by a case-insensitive substring of title or ID. The pattern is folded once when the
+     * filter is created and compared against each item's precomputed {@link NewsItem#getSearchKey()
+     * search key}.
+     */
     static class NewsListViewerFilter extends ViewerFilter {
-        private String pattern = "";
-        private Boolean onlyUnread = false;
-
-        public void setPattern(String pattern) {
-            this.pattern = pattern;
-        }
+        private final String foldedPattern;
+        private final boolean onlyUnread;
 
-        public void setOnlyUnread(Boolean onlyUnread) {
-            this.onlyUnread = onlyUnread;
+        NewsListViewerFilter(String pattern, Boolean onlyUnread) {
+            this.foldedPattern = pattern == null ? "" : pattern.toLowerCase(Locale.ROOT);
+            this.onlyUnread = Boolean.TRUE.equals(onlyUnread);
         }
 
         @Override
         public boolean select(Viewer viewer, Object parentElement, Object element) {
             final var newsItem = (NewsItem) element;
-
-            final Pattern compiledPattern =
-                    Pattern.compile(Pattern.quote(pattern), Pattern.CASE_INSENSITIVE);
-            final boolean matchesPattern = compiledPattern.matcher(newsItem.getTitle()).find()
-                    || compiledPattern.matcher(newsItem.getId()).find();
-            final boolean onlyUnreadValue = Boolean.TRUE.equals(onlyUnread);
-            final boolean matchesUnread = !onlyUnreadValue || newsItem.getUnread();
-            return matchesPattern && matchesUnread;
+            if (onlyUnread && !newsItem.getUnread()) {
+                return false;
+            }
+            return foldedPattern.isEmpty() || newsItem.getSearchKey().contains(foldedPattern);
         }
     }
 
@@ -1,9 +1,10 @@
 package org.ruyisdk.packages.model;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import org.ruyisdk.ruyi.model.DeviceEntityInfo;
-import org.ruyisdk.ruyi.model.EntityInfoParser;
+import org.ruyisdk.ruyi.services.CatalogSnapshot;
 import org.ruyisdk.ruyi.services.RuyiCli;
 
 /**
@@ -13,15 +14,28 @@ import org.ruyisdk.ruyi.services.RuyiCli;
 public class DeviceList {
 
     /**
-     * Loads all device entities from the Ruyi CLI, sorted case-insensitively by label.
+     * Loads all device entities from the shared entity index, sorted case-insensitively by label.
      *
      * @return sorted list of device entities
      */
     public static List<DeviceEntityInfo> loadDevices() {
-        final var output = RuyiCli.listEntitiesByType("device");
-        final var devices = EntityInfoParser.parseDeviceEntities(output);
-        devices.sort(
-                Comparator.comparing(DeviceEntityInfo::getLabel, String.CASE_INSENSITIVE_ORDER));
-        return List.copyOf(devices);
+        return sorted(RuyiCli.getEntityIndex().getDevices());
+    }
+
+    /**
+     * Returns the device entities of a catalog snapshot without running the Ruyi CLI, sorted like
+     * {@link #loadDevices()}.
+     *
+     * @param snapshot previously saved catalog
+     * @return sorted list of device entities
+     */
+    public static List<DeviceEntityInfo> fromSnapshot(CatalogSnapshot snapshot) {
+        return sorted(snapshot.getDevices());
+    }
+
+    private static List<DeviceEntityInfo> sorted(List<DeviceEntityInfo> devices) {
+        final var copy = new ArrayList<>(devices);
+        copy.sort(Comparator.comparing(DeviceEntityInfo::getLabel, String.CASE_INSENSITIVE_ORDER));
+        return List.copyOf(copy);
     }
 }
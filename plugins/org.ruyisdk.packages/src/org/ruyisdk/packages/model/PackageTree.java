@@ -1,5 +1,10 @@
 package org.ruyisdk.packages.model;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.ruyisdk.ruyi.services.CatalogSnapshot;
 import org.ruyisdk.ruyi.services.RuyiCli;
 
 /**
@@ -15,15 +20,51 @@ public class PackageTree {
      * @return the root {@link TreeNode} of the parsed tree
      */
     public static TreeNode loadPackages(String entityId) {
-        final String output;
-        if (entityId != null) {
-            output = RuyiCli.listRelatedToEntity("device:" + entityId);
-        } else {
-            output = RuyiCli.listAllPackages();
+        if (entityId == null) {
+            return buildTree("All Packages", RuyiCli.getPackageCatalog().getPackageTree());
         }
-        final var rootLabel = entityId != null ? entityId : "All Packages";
+        final var output = RuyiCli.listRelatedToEntity("device:" + entityId);
+        return buildTree(entityId, RuyiCli.parsePackageTreeFromString(output));
+    }
+
+    /**
+     * Builds the "All Packages" tree from a catalog snapshot without running the Ruyi CLI.
+     *
+     * @param snapshot previously saved catalog
+     * @return the root {@link TreeNode} of the tree
+     */
+    public static TreeNode fromSnapshot(CatalogSnapshot snapshot) {
+        return buildTree("All Packages", RuyiCli.toPackageTree(snapshot.getPackages()));
+    }
+
+    /**
+     * Indexes the leaves of a tree by package reference.
+     *
+     * @param root root of a tree built by this class
+     * @return map from package reference to its version leaf
+     */
+    public static Map<String, TreeNode> indexLeaves(TreeNode root) {
+        final var leaves = new HashMap<String, TreeNode>();
+        final var stack = new ArrayDeque<TreeNode>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final var node = stack.pop();
+            if (node.isLeaf()) {
+                if (node.getPackageRef() != null) {
+                    leaves.put(node.getPackageRef(), node);
+                }
+            } else {
+                for (final var child : node.getChildren()) {
+                    stack.push(child);
+                }
+            }
+        }
+        return leaves;
+    }
+
+    private static TreeNode buildTree(String rootLabel,
+            List<RuyiCli.PackageTreeCategoryInfo> tree) {
         final var root = new TreeNode(rootLabel, null);
-        final var tree = RuyiCli.parsePackageTreeFromString(output);
         for (final var category : tree) {
             final var categoryNode = new TreeNode(category.getName(), null);
             root.addChild(categoryNode);
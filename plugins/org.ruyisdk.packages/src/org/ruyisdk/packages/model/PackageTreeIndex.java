@@ -0,0 +1,231 @@
+package org.ruyisdk.packages.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigram index over the version leaves of a package tree, used to filter the tree as the user
+ * types.
+ *
+ * <p>
+ * Each leaf is indexed under a lower-case search key made of its category, package name, version
+ * label (which carries the remarks, e.g. {@code [prerelease]}) and package reference. A query is
+ * split into whitespace-separated terms that must all occur in the key. Candidates come from the
+ * intersection of the posting lists of the terms' trigrams and are then verified with a substring
+ * check. A query that extends the previous one only re-checks the previous matches.
+ *
+ * <p>
+ * Not thread-safe; meant to be used from the UI thread.
+ */
+public final class PackageTreeIndex {
+
+    private final TreeNode[] leaves;
+    private final String[] keys;
+    private final HashMap<Long, int[]> postings;
+
+    private String lastQuery;
+    private int[] lastMatches;
+
+    private PackageTreeIndex(TreeNode[] leaves, String[] keys, HashMap<Long, int[]> postings) {
+        this.leaves = leaves;
+        this.keys = keys;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds the index for all leaves below {@code root}.
+     *
+     * @param root root of a tree built by {@link PackageTree}
+     * @return the index
+     */
+    public static PackageTreeIndex build(TreeNode root) {
+        final var leaves = new ArrayList<TreeNode>();
+        final var keys = new ArrayList<String>();
+        collect(root, new StringBuilder(), leaves, keys);
+
+        final var building = new HashMap<Long, IntList>();
+        for (int id = 0; id < keys.size(); id++) {
+            final var key = keys.get(id);
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                final var list = building.computeIfAbsent(trigram(key, i), k -> new IntList());
+                // Ids ascend, so a repeated trigram of the same key is always the last entry
+                if (list.size == 0 || list.values[list.size - 1] != id) {
+                    list.add(id);
+                }
+            }
+        }
+        final var postings = new HashMap<Long, int[]>(building.size() * 4 / 3 + 1);
+        building.forEach((trigram, list) -> postings.put(trigram, list.toArray()));
+
+        return new PackageTreeIndex(leaves.toArray(TreeNode[]::new), keys.toArray(String[]::new),
+                postings);
+    }
+
+    /**
+     * Returns the number of indexed leaves.
+     *
+     * @return leaf count
+     */
+    public int size() {
+        return leaves.length;
+    }
+
+    /**
+     * Finds the leaves matching a query.
+     *
+     * @param query whitespace-separated terms, matched case-insensitively
+     * @return matching leaves in tree order; every leaf for a blank query
+     */
+    public List<TreeNode> query(String query) {
+        final var normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of(leaves);
+        }
+        final var terms = normalized.split(" ");
+
+        int[] candidates;
+        if (lastQuery != null && normalized.startsWith(lastQuery)) {
+            // Every term of the old query is a prefix of a term of the new one
+            candidates = lastMatches;
+        } else {
+            candidates = trigramCandidates(terms);
+        }
+
+        final var matches = new IntList();
+        for (final var id : candidates != null ? candidates : allIds()) {
+            if (containsAll(keys[id], terms)) {
+                matches.add(id);
+            }
+        }
+        lastQuery = normalized;
+        lastMatches = matches.toArray();
+
+        final var result = new ArrayList<TreeNode>(matches.size);
+        for (final var id : lastMatches) {
+            result.add(leaves[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the ancestors of the given leaves, giving every node that stays visible under a filter.
+     *
+     * @param matches leaves returned by {@link #query}
+     * @param visible receives the leaves and all their ancestors
+     */
+    public static void addWithAncestors(List<TreeNode> matches, Set<TreeNode> visible) {
+        for (final var leaf : matches) {
+            // Stops at the first ancestor already added through a sibling
+            var node = leaf;
+            while (node != null && visible.add(node)) {
+                node = node.getParent();
+            }
+        }
+    }
+
+    /** Returns sorted candidate ids, or {@code null} if no term is long enough to have trigrams. */
+    private int[] trigramCandidates(String[] terms) {
+        int[] candidates = null;
+        for (final var term : terms) {
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                final var posting = postings.get(trigram(term, i));
+                if (posting == null) {
+                    return new int[0];
+                }
+                candidates = candidates == null ? posting : intersect(candidates, posting);
+                if (candidates.length == 0) {
+                    return candidates;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private int[] allIds() {
+        final var ids = new int[leaves.length];
+        Arrays.setAll(ids, i -> i);
+        return ids;
+    }
+
+    private static void collect(TreeNode node, StringBuilder path, List<TreeNode> leaves,
+            List<String> keys) {
+        if (node.isLeaf()) {
+            final var key = new StringBuilder(path).append(node.getName());
+            if (node.getDetails() != null) {
+                key.append(' ').append(node.getDetails());
+            }
+            if (node.getPackageRef() != null) {
+                key.append(' ').append(node.getPackageRef());
+            }
+            leaves.add(node);
+            keys.add(normalize(key.toString()));
+            return;
+        }
+        final var length = path.length();
+        for (final var child : node.getChildren()) {
+            if (!child.isLeaf()) {
+                path.append(child.getName()).append(' ');
+            }
+            collect(child, path, leaves, keys);
+            path.setLength(length);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static boolean containsAll(String key, String[] terms) {
+        for (final var term : terms) {
+            if (!key.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        final var out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Growable {@code int} array, avoiding boxing while the postings are built. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class TreeNode {
     private List<TreeNode> children;
     private TreeNode parent;
     private boolean downloaded = false; // Download mark field
+    private long revision; // Bumped on every change below this node
 
     /**
      * Constructs a tree node.
@@ -102,6 +103,7 @@ public class TreeNode {
     public void addChild(TreeNode child) {
         children.add(child);
         child.parent = this;
+        bumpRevision();
     }
 
     /**
@@ -137,6 +139,25 @@ public class TreeNode {
      * @param downloaded downloaded state
      */
     public void setDownloaded(boolean downloaded) {
-        this.downloaded = downloaded;
+        if (this.downloaded != downloaded) {
+            this.downloaded = downloaded;
+            bumpRevision();
+        }
+    }
+
+    /**
+     * Gets the revision of this subtree. It changes whenever a child is added or a downloaded state
+     * changes anywhere below (or at) this node, so derived state can be cached per revision.
+     *
+     * @return revision counter
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    private void bumpRevision() {
+        for (var node = this; node != null; node = node.parent) {
+            node.revision++;
+        }
     }
 }
@@ -1,10 +1,20 @@
 package org.ruyisdk.packages.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.ruyisdk.packages.model.PackageOperation;
 import org.ruyisdk.ruyi.services.RuyiCli;
+import org.ruyisdk.ruyi.services.RuyiCliScheduler;
 
 /**
  * Executes a list of package install/uninstall operations synchronously, reporting progress through
@@ -26,17 +36,138 @@ public class PackageOperationRunner {
          * @param lineCallback called for each line of process output
          */
         void execute(PackageOperation op, Consumer<String> lineCallback);
+
+        /**
+         * Performs an install or uninstall that stops when {@code cancelFlag} turns {@code true}.
+         * The default implementation cannot be interrupted.
+         *
+         * @param op the operation to execute
+         * @param lineCallback called for each line of process output
+         * @param cancelFlag supplier returning {@code true} when cancellation has been requested
+         */
+        default void execute(PackageOperation op, Consumer<String> lineCallback,
+                BooleanSupplier cancelFlag) {
+            execute(op, lineCallback);
+        }
     }
 
     /** Default installer that delegates to {@link RuyiCli}. */
-    public static final PackageInstaller DEFAULT_INSTALLER = (op, lineCallback) -> {
-        if (op.uninstall()) {
-            RuyiCli.uninstallPackageStreaming(op.packageRef(), true, lineCallback, null);
-        } else {
-            RuyiCli.installPackageStreaming(op.packageRef(), lineCallback, null);
+    public static final PackageInstaller DEFAULT_INSTALLER = new PackageInstaller() {
+        @Override
+        public void execute(PackageOperation op, Consumer<String> lineCallback) {
+            execute(op, lineCallback, () -> false);
+        }
+
+        @Override
+        public void execute(PackageOperation op, Consumer<String> lineCallback,
+                BooleanSupplier cancelFlag) {
+            if (op.uninstall()) {
+                RuyiCli.uninstallPackageStreaming(op.packageRef(), true, lineCallback,
+                        toMonitor(cancelFlag));
+            } else {
+                RuyiCli.installPackageStreaming(op.packageRef(), lineCallback,
+                        toMonitor(cancelFlag));
+            }
         }
     };
 
+    /**
+     * Abstraction over CLI install/uninstall of several packages in one invocation.
+     */
+    @FunctionalInterface
+    public interface BatchPackageInstaller {
+
+        /**
+         * Performs several installs, or several uninstalls, with one command.
+         *
+         * @param ops the operations to execute; all of the same kind
+         * @param lineCallback called for each line of process output
+         */
+        void execute(List<PackageOperation> ops, Consumer<String> lineCallback);
+
+        /**
+         * Performs a batch that stops when {@code cancelFlag} turns {@code true}. The default
+         * implementation cannot be interrupted.
+         *
+         * @param ops the operations to execute; all of the same kind
+         * @param lineCallback called for each line of process output
+         * @param cancelFlag supplier returning {@code true} when cancellation has been requested
+         */
+        default void execute(List<PackageOperation> ops, Consumer<String> lineCallback,
+                BooleanSupplier cancelFlag) {
+            execute(ops, lineCallback);
+        }
+    }
+
+    /** Default batch installer that delegates to {@link RuyiCli}. */
+    public static final BatchPackageInstaller DEFAULT_BATCH_INSTALLER =
+            new BatchPackageInstaller() {
+                @Override
+                public void execute(List<PackageOperation> ops, Consumer<String> lineCallback) {
+                    execute(ops, lineCallback, () -> false);
+                }
+
+                @Override
+                public void execute(List<PackageOperation> ops, Consumer<String> lineCallback,
+                        BooleanSupplier cancelFlag) {
+                    final var packageRefs = ops.stream().map(PackageOperation::packageRef).toList();
+                    if (ops.get(0).uninstall()) {
+                        RuyiCli.uninstallPackagesStreaming(packageRefs, true, lineCallback,
+                                toMonitor(cancelFlag));
+                    } else {
+                        RuyiCli.installPackagesStreaming(packageRefs, lineCallback,
+                                toMonitor(cancelFlag));
+                    }
+                }
+            };
+
+    /**
+     * Abstraction over downloading a package ahead of its install.
+     */
+    @FunctionalInterface
+    public interface PackagePrefetcher {
+
+        /**
+         * Downloads the package of an install operation without installing it.
+         *
+         * @param op the install operation
+         * @param cancelFlag supplier returning {@code true} when cancellation has been requested
+         */
+        void fetch(PackageOperation op, BooleanSupplier cancelFlag);
+    }
+
+    /** Default prefetcher that runs {@code ruyi install -f} through {@link RuyiCli}. */
+    public static final PackagePrefetcher DEFAULT_PREFETCHER = (op, cancelFlag) -> {
+        RuyiCli.fetchPackagesStreaming(List.of(op.packageRef()), null, toMonitor(cancelFlag));
+    };
+
+    /**
+     * Default number of download lanes. More lanes than ruyi admits concurrent fetches (see
+     * {@link RuyiCliScheduler#MAX_CONCURRENT_FETCHES}) only queue.
+     */
+    public static final int MAX_CONCURRENT_PREFETCHES = RuyiCliScheduler.MAX_CONCURRENT_FETCHES;
+
+    /**
+     * Aggregate figures of one {@link #run} call.
+     *
+     * @param succeeded number of operations that completed
+     * @param failed number of operations that failed
+     * @param prefetched number of packages downloaded ahead of their install
+     * @param elapsed wall-clock time of the run
+     */
+    public record RunStats(int succeeded, int failed, int prefetched, Duration elapsed) {
+
+        /**
+         * Returns the completed operations per minute.
+         *
+         * @return throughput, or 0 if nothing completed
+         */
+        public double operationsPerMinute() {
+            final var millis = elapsed.toMillis();
+            return millis <= 0 ? 0 : succeeded * 60_000.0 / millis;
+        }
+    }
+
     /**
      * Callback interface for operation progress reporting.
      */
@@ -54,29 +185,92 @@ public class PackageOperationRunner {
         /** Called when a step fails. */
         void onStepFailed(int index, String errorMessage);
 
+        /** Called with aggregate figures just before {@link #onAllFinished}. */
+        default void onStats(RunStats stats) {}
+
         /** Called after all operations finish (or are cancelled). */
         void onAllFinished(boolean wasCancelled);
     }
 
     private final PackageInstaller installer;
+    private final BatchPackageInstaller batchInstaller;
+    private final PackagePrefetcher prefetcher;
+    private final int laneWidth;
 
-    /** Creates a runner using the default {@link RuyiCli}-backed installer. */
+    /**
+     * Creates a runner using the default {@link RuyiCli}-backed installers, with batching and
+     * prefetching.
+     */
     public PackageOperationRunner() {
-        this(DEFAULT_INSTALLER);
+        this(DEFAULT_INSTALLER, DEFAULT_BATCH_INSTALLER, DEFAULT_PREFETCHER);
     }
 
     /**
-     * Creates a runner with the given installer (useful for testing).
+     * Creates a runner with the given installer (useful for testing). Every operation runs on its
+     * own.
      *
      * @param installer the installer to delegate individual operations to
      */
     public PackageOperationRunner(PackageInstaller installer) {
+        this(installer, null, null);
+    }
+
+    /**
+     * Creates a runner that groups consecutive installs, and consecutive uninstalls, into one
+     * invocation of {@code batchInstaller}. If a batch fails, its unfinished operations are retried
+     * one by one through {@code installer} to isolate the failing package.
+     *
+     * @param installer the installer for individual operations
+     * @param batchInstaller the installer for batches (may be {@code null} to disable batching)
+     */
+    public PackageOperationRunner(PackageInstaller installer,
+            BatchPackageInstaller batchInstaller) {
+        this(installer, batchInstaller, null);
+    }
+
+    /**
+     * Creates a runner that, when more than one package is to be installed, first downloads all of
+     * them concurrently through {@code prefetcher} (at most {@link #MAX_CONCURRENT_PREFETCHES} at a
+     * time). A single install waits only for its own download, but a batch waits for the downloads
+     * of all its packages before the batch installer starts. With batching, the gain is that the
+     * downloads run in parallel; only downloads for steps after the batch overlap with its
+     * extraction.
+     *
+     * @param installer the installer for individual operations
+     * @param batchInstaller the installer for batches (may be {@code null} to disable batching)
+     * @param prefetcher the prefetcher (may be {@code null} to disable prefetching)
+     */
+    public PackageOperationRunner(PackageInstaller installer, BatchPackageInstaller batchInstaller,
+            PackagePrefetcher prefetcher) {
+        this(installer, batchInstaller, prefetcher, MAX_CONCURRENT_PREFETCHES);
+    }
+
+    /**
+     * Creates a runner like
+     * {@link #PackageOperationRunner(PackageInstaller, BatchPackageInstaller, PackagePrefetcher)}
+     * with {@code laneWidth} parallel download lanes. Installs and uninstalls themselves always run
+     * one at a time, because ruyi admits only one mutating command at once.
+     *
+     * @param installer the installer for individual operations
+     * @param batchInstaller the installer for batches (may be {@code null} to disable batching)
+     * @param prefetcher the prefetcher (may be {@code null} to disable prefetching)
+     * @param laneWidth maximum number of concurrent downloads, at least 1
+     */
+    public PackageOperationRunner(PackageInstaller installer, BatchPackageInstaller batchInstaller,
+            PackagePrefetcher prefetcher, int laneWidth) {
+        if (laneWidth < 1) {
+            throw new IllegalArgumentException("laneWidth must be at least 1");
+        }
         this.installer = installer;
+        this.batchInstaller = batchInstaller;
+        this.prefetcher = prefetcher;
+        this.laneWidth = laneWidth;
     }
 
     /**
-     * Runs all operations in order. Checks {@code cancelFlag} between operations; a running
-     * operation is not interrupted.
+     * Runs all operations in the given order; use {@link PackageOperationScheduler#order} to put
+     * uninstalls first. Checks {@code cancelFlag} between operations and passes it to the
+     * installers, so the running ruyi process is stopped as well.
      *
      * @param operations the operations to execute
      * @param callback progress callback
@@ -84,20 +278,270 @@ public class PackageOperationRunner {
      */
     public void run(List<PackageOperation> operations, OperationCallback callback,
             BooleanSupplier cancelFlag) {
-        for (int i = 0; i < operations.size(); i++) {
+        final var startNanos = System.nanoTime();
+        final var counting = new CountingCallback(callback);
+        final var prefetched = runAll(operations, counting, cancelFlag);
+        callback.onStats(new RunStats(counting.succeeded, counting.failed, prefetched,
+                Duration.ofNanos(System.nanoTime() - startNanos)));
+        callback.onAllFinished(cancelFlag.getAsBoolean());
+    }
+
+    private int runAll(List<PackageOperation> operations, OperationCallback callback,
+            BooleanSupplier cancelFlag) {
+        try (var prefetches = Prefetches.start(prefetcher, laneWidth, operations, cancelFlag)) {
+            int i = 0;
+            while (i < operations.size()) {
+                if (cancelFlag.getAsBoolean()) {
+                    break;
+                }
+                final var end = batchInstaller != null ? batchEnd(operations, i) : i + 1;
+                prefetches.await(i, end);
+                if (end - i > 1) {
+                    runBatch(operations, i, end, callback, cancelFlag);
+                } else {
+                    callback.onStepStart(i, operations.size(), operations.get(i));
+                    runSingle(operations, i, callback, cancelFlag);
+                }
+                i = end;
+            }
+            return prefetches.completed.get();
+        }
+    }
+
+    /** Returns the end (exclusive) of the run of same-kind operations starting at {@code start}. */
+    private static int batchEnd(List<PackageOperation> operations, int start) {
+        final var uninstall = operations.get(start).uninstall();
+        var end = start + 1;
+        while (end < operations.size() && operations.get(end).uninstall() == uninstall) {
+            end++;
+        }
+        return end;
+    }
+
+    private void runSingle(List<PackageOperation> operations, int index, OperationCallback callback,
+            BooleanSupplier cancelFlag) {
+        try {
+            installer.execute(operations.get(index), callback::onOutputLine, cancelFlag);
+            callback.onStepDone(index);
+        } catch (Exception e) {
+            callback.onStepFailed(index, e.toString());
+        }
+    }
+
+    private void runBatch(List<PackageOperation> operations, int start, int end,
+            OperationCallback callback, BooleanSupplier cancelFlag) {
+        final var progress = new BatchProgress(operations, start, end, callback);
+        try {
+            batchInstaller.execute(operations.subList(start, end), line -> {
+                callback.onOutputLine(line);
+                progress.onLine(line);
+            }, cancelFlag);
+            progress.completeThrough(end - 1);
+        } catch (Exception e) {
             if (cancelFlag.getAsBoolean()) {
-                break;
+                callback.onStepFailed(progress.current, e.toString());
+                return;
             }
-            final var op = operations.get(i);
-            callback.onStepStart(i, operations.size(), op);
-
-            try {
-                installer.execute(op, callback::onOutputLine);
-                callback.onStepDone(i);
-            } catch (Exception e) {
-                callback.onStepFailed(i, e.toString());
+            callback.onOutputLine(String.format(
+                    "Batch failed (%s), retrying the remaining packages one at a time.", e));
+            // The step in progress has already been announced.
+            for (int i = progress.current; i < end; i++) {
+                if (i > progress.current) {
+                    if (cancelFlag.getAsBoolean()) {
+                        return;
+                    }
+                    callback.onStepStart(i, operations.size(), operations.get(i));
+                }
+                runSingle(operations, i, callback, cancelFlag);
             }
         }
-        callback.onAllFinished(cancelFlag.getAsBoolean());
+    }
+
+    private static IProgressMonitor toMonitor(BooleanSupplier cancelFlag) {
+        return new NullProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return cancelFlag.getAsBoolean();
+            }
+        };
+    }
+
+    /** Counts finished steps on their way to the caller's callback. */
+    private static final class CountingCallback implements OperationCallback {
+        private final OperationCallback delegate;
+        private int succeeded;
+        private int failed;
+
+        CountingCallback(OperationCallback delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onStepStart(int index, int total, PackageOperation operation) {
+            delegate.onStepStart(index, total, operation);
+        }
+
+        @Override
+        public void onOutputLine(String line) {
+            delegate.onOutputLine(line);
+        }
+
+        @Override
+        public void onStepDone(int index) {
+            succeeded++;
+            delegate.onStepDone(index);
+        }
+
+        @Override
+        public void onStepFailed(int index, String errorMessage) {
+            failed++;
+            delegate.onStepFailed(index, errorMessage);
+        }
+
+        @Override
+        public void onAllFinished(boolean wasCancelled) {
+            delegate.onAllFinished(wasCancelled);
+        }
+    }
+
+    /**
+     * Downloads started ahead of the installs of one {@link #run} call. They run next to the
+     * installs, outside the read/write lock of {@link RuyiCliScheduler}, which explains why that is
+     * safe. Prefetch failures are ignored: the install itself downloads again and reports the
+     * actual error.
+     */
+    private static final class Prefetches implements AutoCloseable {
+        private static final Prefetches NONE = new Prefetches(null, List.of());
+
+        private final ExecutorService executor;
+        private final List<CompletableFuture<Void>> downloads;
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private Prefetches(ExecutorService executor, List<CompletableFuture<Void>> downloads) {
+            this.executor = executor;
+            this.downloads = downloads;
+        }
+
+        static Prefetches start(PackagePrefetcher prefetcher, int laneWidth,
+                List<PackageOperation> operations, BooleanSupplier cancelFlag) {
+            final var installs = operations.stream().filter(op -> !op.uninstall()).count();
+            if (prefetcher == null || installs < 2) {
+                return NONE;
+            }
+            final var executor = Executors.newFixedThreadPool(laneWidth,
+                    Thread.ofVirtual().name("package-prefetch-", 0).factory());
+            final var downloads = new ArrayList<CompletableFuture<Void>>(operations.size());
+            final var prefetches = new Prefetches(executor, downloads);
+            for (final var op : operations) {
+                if (op.uninstall()) {
+                    downloads.add(null);
+                    continue;
+                }
+                downloads.add(CompletableFuture.runAsync(() -> {
+                    if (!cancelFlag.getAsBoolean()) {
+                        prefetcher.fetch(op, cancelFlag);
+                        prefetches.completed.incrementAndGet();
+                    }
+                }, executor));
+            }
+            return prefetches;
+        }
+
+        /** Waits until the downloads for operations {@code start} to {@code end} have finished. */
+        void await(int start, int end) {
+            for (int i = start; i < end && i < downloads.size(); i++) {
+                final var download = downloads.get(i);
+                if (download != null) {
+                    download.handle((ignored, failure) -> null).join();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Maps the streamed output of a batch back to individual steps. ruyi reports each finished
+     * package on a line naming the package and its version together with "installed" or
+     * "uninstalled" (which also covers "skipping already installed"). Such a line completes that
+     * step and any earlier unconfirmed ones, and starts the following step.
+     */
+    private static final class BatchProgress {
+        private final List<PackageOperation> operations;
+        private final int start;
+        private final int end;
+        private final OperationCallback callback;
+        private final List<String[]> atoms;
+        /** Step in progress; {@code end} once every step is done. */
+        private int current;
+
+        BatchProgress(List<PackageOperation> operations, int start, int end,
+                OperationCallback callback) {
+            this.operations = operations;
+            this.start = start;
+            this.end = end;
+            this.callback = callback;
+            this.atoms = operations.subList(start, end).stream()
+                    .map(op -> splitAtom(op.packageRef())).toList();
+            this.current = start;
+            callback.onStepStart(start, operations.size(), operations.get(start));
+        }
+
+        void onLine(String line) {
+            if (current >= end || !line.toLowerCase(Locale.ROOT).contains("installed")) {
+                return;
+            }
+            final var tokens = line.strip().split("\\s+");
+            for (int i = current; i < end; i++) {
+                final var atom = atoms.get(i - start);
+                for (final var token : tokens) {
+                    if (matches(token, atom)) {
+                        completeThrough(i);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns whether a whitespace-delimited token is the {@code name-version} ruyi prints for
+         * an atom. Without a version, any version of exactly that name matches.
+         */
+        private static boolean matches(String token, String[] atom) {
+            final var name = atom[0];
+            final var version = atom[1];
+            if (!version.isEmpty()) {
+                return token.equals(name + "-" + version);
+            }
+            // A digit after the separator tells "gnu-plct-2.8.0" from "gnu-plct-xthead-2.8.0"
+            return token.length() > name.length() + 1 && token.startsWith(name)
+                    && token.charAt(name.length()) == '-'
+                    && Character.isDigit(token.charAt(name.length() + 1));
+        }
+
+        void completeThrough(int last) {
+            while (current <= last) {
+                callback.onStepDone(current);
+                current++;
+                if (current < end) {
+                    callback.onStepStart(current, operations.size(), operations.get(current));
+                }
+            }
+        }
+
+        /** Splits {@code name(version)} into name and version; the version may be empty. */
+        private static String[] splitAtom(String packageRef) {
+            final var open = packageRef.indexOf('(');
+            if (open < 0 || !packageRef.endsWith(")")) {
+                return new String[] {packageRef.trim(), ""};
+            }
+            return new String[] {packageRef.substring(0, open).trim(),
+                    packageRef.substring(open + 1, packageRef.length() - 1).trim()};
+        }
     }
 }
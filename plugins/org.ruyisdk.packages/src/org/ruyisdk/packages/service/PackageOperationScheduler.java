@@ -0,0 +1,39 @@
+package org.ruyisdk.packages.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.ruyisdk.packages.model.PackageOperation;
+
+/**
+ * Puts pending package operations into the order {@link PackageOperationRunner} executes them in.
+ *
+ * <p>
+ * All uninstalls come before all installs. This frees disk space first, and it makes a version
+ * switch of one package (uninstall {@code name(1.0)}, install {@code name(2.0)}) safe whatever
+ * order the operations were collected in. Within each group the original order is kept and
+ * duplicates are dropped, so consecutive operations of the same kind form one batch for the runner.
+ */
+public final class PackageOperationScheduler {
+
+    private PackageOperationScheduler() {}
+
+    /**
+     * Orders operations for execution.
+     *
+     * @param operations operations in collection order
+     * @return uninstalls followed by installs, without duplicates
+     */
+    public static List<PackageOperation> order(Collection<PackageOperation> operations) {
+        final var uninstalls = new LinkedHashSet<PackageOperation>();
+        final var installs = new LinkedHashSet<PackageOperation>();
+        for (final var op : operations) {
+            (op.uninstall() ? uninstalls : installs).add(op);
+        }
+        final var ordered = new ArrayList<PackageOperation>(uninstalls.size() + installs.size());
+        ordered.addAll(uninstalls);
+        ordered.addAll(installs);
+        return ordered;
+    }
+}
@@ -2,6 +2,7 @@ package org.ruyisdk.packages.view;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.List;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.ControlContribution;
 import org.eclipse.jface.action.IToolBarManager;
@@ -9,7 +10,7 @@ import org.eclipse.jface.action.Separator;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.CheckboxTreeViewer;
 import org.eclipse.jface.viewers.ICheckStateProvider;
-import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.SWT;
@@ -39,12 +40,20 @@ import org.ruyisdk.packages.viewmodel.PackageOperationViewModel;
  */
 public class PackageExplorerView extends ViewPart {
 
+    /** Quiet period after the last keystroke before the filter is applied. */
+    private static final int FILTER_DELAY_MILLIS = 150;
+
+    /** Filters matching at most this many versions expand the whole tree. */
+    private static final int FILTER_EXPAND_ALL_LIMIT = 200;
+
     private PackageExplorerViewModel viewModel;
     private PropertyChangeListener viewModelListener;
 
     private CheckboxTreeViewer treeViewer;
     private Link deviceInfoLink;
     private Text infoText;
+    private Text filterText;
+    private final Runnable applyFilter = this::applyFilter;
     private IToolBarManager toolBar;
 
     @Override
@@ -56,6 +65,16 @@ public class PackageExplorerView extends ViewPart {
         // Populate the view toolbar with actions and device info
         createToolbarActions(parent.getShell());
 
+        filterText = new Text(parent, SWT.SEARCH | SWT.ICON_SEARCH | SWT.ICON_CANCEL);
+        filterText.setMessage("Filter packages, versions and remarks");
+        filterText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        // Debounce: each keystroke restarts the timer, so a burst of typing filters only once
+        filterText.addModifyListener(event -> {
+            final var display = filterText.getDisplay();
+            display.timerExec(-1, applyFilter);
+            display.timerExec(FILTER_DELAY_MILLIS, applyFilter);
+        });
+
         // SashForm splits the view horizontally: tree on left, info pane on right
         final var sashForm = new SashForm(parent, SWT.HORIZONTAL);
         sashForm.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
@@ -88,6 +107,23 @@ public class PackageExplorerView extends ViewPart {
                     expandTree(root);
                 }
                 break;
+            case PackageExplorerViewModel.PROP_PACKAGE_NODES:
+                @SuppressWarnings("unchecked")
+                final var nodes = (List<TreeNode>) evt.getNewValue();
+                treeViewer.update(nodes.toArray(), null);
+                break;
+            case PackageExplorerViewModel.PROP_PACKAGE_FILTER:
+                treeViewer.refresh();
+                final var filteredRoot = viewModel.getPackageRoot();
+                if (filteredRoot != null) {
+                    final var matches = viewModel.getFilterMatchCount();
+                    if (matches >= 0 && matches <= FILTER_EXPAND_ALL_LIMIT) {
+                        treeViewer.expandAll();
+                    } else {
+                        expandTree(filteredRoot);
+                    }
+                }
+                break;
             case PackageExplorerViewModel.PROP_DEVICE_INFO_TEXT:
                 if (deviceInfoLink != null && !deviceInfoLink.isDisposed()) {
                     deviceInfoLink.setText(viewModel.getDeviceInfoText());
@@ -222,47 +258,49 @@ public class PackageExplorerView extends ViewPart {
         }
 
         final var operationVm = new PackageOperationViewModel(Display.getDefault()::asyncExec,
-                operations, viewModel::refreshPackages);
+                operations, viewModel::applyCompletedOperations);
         final var workbenchShell = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell();
         final var dialog = new PackageOperationDialog(workbenchShell, operationVm);
         dialog.open();
     }
 
     private void createTreeView(Composite parent) {
-        treeViewer = new CheckboxTreeViewer(parent, SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL);
+        // Virtual: SWT items are only created for rows that are expanded and scrolled into view
+        treeViewer = new CheckboxTreeViewer(parent,
+                SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL | SWT.VIRTUAL);
+        treeViewer.setUseHashlookup(true);
 
-        treeViewer.setContentProvider(new ITreeContentProvider() {
+        treeViewer.setContentProvider(new ILazyTreeContentProvider() {
             @Override
-            public Object[] getElements(Object inputElement) {
-                if (inputElement instanceof TreeNode) {
-                    return ((TreeNode) inputElement).getChildren().toArray();
+            public void updateElement(Object parent, int index) {
+                if (parent instanceof TreeNode node) {
+                    final var children = viewModel.getVisibleChildren(node);
+                    if (index < children.size()) {
+                        final var child = children.get(index);
+                        treeViewer.replace(parent, index, child);
+                        treeViewer.setHasChildren(child,
+                                !viewModel.getVisibleChildren(child).isEmpty());
+                    }
                 }
-                return new Object[0];
             }
 
             @Override
-            public Object[] getChildren(Object parentElement) {
-                if (parentElement instanceof TreeNode) {
-                    return ((TreeNode) parentElement).getChildren().toArray();
+            public void updateChildCount(Object element, int currentChildCount) {
+                if (element instanceof TreeNode node) {
+                    final var count = viewModel.getVisibleChildren(node).size();
+                    if (count != currentChildCount) {
+                        treeViewer.setChildCount(element, count);
+                    }
                 }
-                return new Object[0];
             }
 
             @Override
             public Object getParent(Object element) {
-                if (element instanceof TreeNode) {
-                    return ((TreeNode) element).getParent();
+                if (element instanceof TreeNode node) {
+                    return node.getParent();
                 }
                 return null;
             }
-
-            @Override
-            public boolean hasChildren(Object element) {
-                if (element instanceof TreeNode) {
-                    return ((TreeNode) element).hasChildren();
-                }
-                return false;
-            }
         });
 
         treeViewer.setLabelProvider(new LabelProvider() {
@@ -307,13 +345,19 @@ public class PackageExplorerView extends ViewPart {
         });
     }
 
+    private void applyFilter() {
+        if (filterText != null && !filterText.isDisposed()) {
+            viewModel.setPackageFilter(filterText.getText());
+        }
+    }
+
     private void expandTree(TreeNode root) {
         // Unconditionally expand the root's immediate children to make the view full
         treeViewer.expandToLevel(root, 2);
 
         // Then recursively expand only checked subtrees
         if (root.getChildren() != null) {
-            for (final var child : root.getChildren()) {
+            for (final var child : viewModel.getVisibleChildren(root)) {
                 expandCheckedSubtree(child);
             }
         }
@@ -325,7 +369,7 @@ public class PackageExplorerView extends ViewPart {
         }
         if (viewModel.isNodeChecked(node)) {
             treeViewer.expandToLevel(node, 1);
-            for (final var child : node.getChildren()) {
+            for (final var child : viewModel.getVisibleChildren(node)) {
                 expandCheckedSubtree(child);
             }
         }
@@ -338,6 +382,9 @@ public class PackageExplorerView extends ViewPart {
 
     @Override
     public void dispose() {
+        if (filterText != null && !filterText.isDisposed()) {
+            filterText.getDisplay().timerExec(-1, applyFilter);
+        }
         if (viewModel != null && viewModelListener != null) {
             viewModel.removePropertyChangeListener(viewModelListener);
         }
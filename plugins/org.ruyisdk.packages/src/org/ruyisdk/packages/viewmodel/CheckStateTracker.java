@@ -11,19 +11,64 @@ import org.ruyisdk.packages.model.TreeNode;
  * When the user hasn't explicitly set a check state for a leaf, it defaults to the node's
  * downloaded (installed) state. Non-leaf nodes derive their checked/grayed state from their
  * descendants.
+ *
+ * <p>
+ * The tree viewer asks for the state of every visible node on each repaint, so non-leaf nodes keep
+ * counters of their checked and unchecked descendant leaves. The counters are built lazily,
+ * adjusted along the ancestor path when an override changes, and rebuilt for the affected path only
+ * when the node's {@link TreeNode#getRevision() revision} shows the tree itself changed.
  */
 public class CheckStateTracker {
 
     private final Map<TreeNode, Boolean> overrides = new HashMap<>();
+    private final Map<TreeNode, LeafCounts> counts = new HashMap<>();
 
     /** Record a user override for a leaf node. */
     public void setSelected(TreeNode node, boolean checked) {
+        if (!node.isLeaf()) {
+            overrides.put(node, checked);
+            return;
+        }
+        final var wasChecked = isEffectivelyChecked(node);
         overrides.put(node, checked);
+        adjustAncestors(node, wasChecked, checked);
+    }
+
+    /** Drop the user override of a leaf, so it follows its downloaded state again. */
+    public void reset(TreeNode node) {
+        if (!node.isLeaf()) {
+            overrides.remove(node);
+            return;
+        }
+        final var wasChecked = isEffectivelyChecked(node);
+        overrides.remove(node);
+        adjustAncestors(node, wasChecked, node.isDownloaded());
     }
 
     /** Clear all overrides (e.g. when a new tree is loaded). */
     public void clear() {
         overrides.clear();
+        counts.clear();
+    }
+
+    /**
+     * Moves the leaf overrides onto the leaves of a new tree with the same package reference and
+     * drops all other state (e.g. when the real tree replaces a snapshot the user already edited).
+     *
+     * @param leavesByRef leaves of the new tree by package reference
+     */
+    public void carryOver(Map<String, TreeNode> leavesByRef) {
+        final var kept = new HashMap<TreeNode, Boolean>();
+        overrides.forEach((node, checked) -> {
+            final var leaf = node.isLeaf() && node.getPackageRef() != null
+                    ? leavesByRef.get(node.getPackageRef())
+                    : null;
+            if (leaf != null) {
+                kept.put(leaf, checked);
+            }
+        });
+        clear();
+        overrides.putAll(kept);
     }
 
     /**
@@ -39,12 +84,7 @@ public class CheckStateTracker {
             final var override = overrides.get(node);
             return override != null ? override : node.isDownloaded();
         }
-        for (final var child : node.getChildren()) {
-            if (isEffectivelyChecked(child)) {
-                return true;
-            }
-        }
-        return false;
+        return countsOf(node).checked > 0;
     }
 
     /**
@@ -58,26 +98,58 @@ public class CheckStateTracker {
         if (node.isLeaf()) {
             return false;
         }
-        final var state = new boolean[] {false /* hasCheckedLeaf */, false /* hasUncheckedLeaf */};
-        collectLeafStates(node, state);
-        return state[0] && state[1];
+        final var leafCounts = countsOf(node);
+        return leafCounts.checked > 0 && leafCounts.unchecked > 0;
     }
 
-    /** Pre-order traversal to collect leaf states. */
-    private void collectLeafStates(TreeNode node, boolean[] state) {
-        if (node.isLeaf()) {
-            if (isEffectivelyChecked(node)) {
-                state[0] = true; // hasCheckedLeaf
+    /** Returns up-to-date counters, rebuilding them from the children's counters if stale. */
+    private LeafCounts countsOf(TreeNode node) {
+        var leafCounts = counts.get(node);
+        if (leafCounts != null && leafCounts.revision == node.getRevision()) {
+            return leafCounts;
+        }
+        leafCounts = new LeafCounts(node.getRevision());
+        for (final var child : node.getChildren()) {
+            if (child.isLeaf()) {
+                if (isEffectivelyChecked(child)) {
+                    leafCounts.checked++;
+                } else {
+                    leafCounts.unchecked++;
+                }
             } else {
-                state[1] = true; // hasUncheckedLeaf
+                final var childCounts = countsOf(child);
+                leafCounts.checked += childCounts.checked;
+                leafCounts.unchecked += childCounts.unchecked;
             }
+        }
+        counts.put(node, leafCounts);
+        return leafCounts;
+    }
+
+    /** Moves one leaf between the checked and unchecked counters of every cached ancestor. */
+    private void adjustAncestors(TreeNode leaf, boolean wasChecked, boolean isChecked) {
+        if (wasChecked == isChecked) {
             return;
         }
-        for (final var child : node.getChildren()) {
-            collectLeafStates(child, state);
-            if (state[0] && state[1]) {
-                return; // both found, no need to continue
+        final var delta = isChecked ? 1 : -1;
+        for (var node = leaf.getParent(); node != null; node = node.getParent()) {
+            final var leafCounts = counts.get(node);
+            // Stale counters are rebuilt on the next query anyway
+            if (leafCounts != null && leafCounts.revision == node.getRevision()) {
+                leafCounts.checked += delta;
+                leafCounts.unchecked -= delta;
             }
         }
     }
+
+    /** Checked and unchecked descendant leaves of one node, valid for one tree revision. */
+    private static final class LeafCounts {
+        private final long revision;
+        private int checked;
+        private int unchecked;
+
+        LeafCounts(long revision) {
+            this.revision = revision;
+        }
+    }
 }
@@ -2,16 +2,27 @@ package org.ruyisdk.packages.viewmodel;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.Nullable;
+import org.ruyisdk.packages.Activator;
 import org.ruyisdk.packages.model.DeviceList;
 import org.ruyisdk.packages.model.PackageOperation;
 import org.ruyisdk.packages.model.PackageTree;
+import org.ruyisdk.packages.model.PackageTreeIndex;
 import org.ruyisdk.packages.model.TreeNode;
+import org.ruyisdk.packages.service.PackageOperationScheduler;
 import org.ruyisdk.ruyi.model.DeviceEntityInfo;
+import org.ruyisdk.ruyi.services.CatalogSnapshot;
+import org.ruyisdk.ruyi.services.RuyiCliResultCache;
 
 /**
  * Main ViewModel for the Package Explorer view.
@@ -31,7 +42,11 @@ public class PackageExplorerViewModel extends BaseViewModel {
     public static final String PROP_DEVICE_LIST_ERROR = "deviceListErrorMessage";
     public static final String PROP_INFO_PANE_TEXT = "infoPaneText";
     public static final String PROP_PACKAGES_LOADING = "packagesLoading";
+    /** Fired when nodes of the current tree changed; the new value is a {@code List<TreeNode>}. */
+    public static final String PROP_PACKAGE_NODES = "packageNodes";
     public static final String PROP_ERROR = "error";
+    /** Fired when the package filter changed; the new value is the filter text. */
+    public static final String PROP_PACKAGE_FILTER = "packageFilter";
 
     private final CheckStateTracker checkState = new CheckStateTracker();
 
@@ -45,12 +60,19 @@ public class PackageExplorerViewModel extends BaseViewModel {
     }
 
     private TreeNode packageRoot;
+    /** Whether {@link #packageRoot} was built from the catalog snapshot. */
+    private boolean showingSnapshot;
     private DeviceEntityInfo chosenDevice;
     private String deviceInfoText = "Current device: <a>(none selected)</a>";
     private List<DeviceEntityInfo> devices = List.of();
     private String deviceListErrorMessage;
     private String infoPaneText = "Select a package to see details.";
     private boolean packagesLoading;
+    private String packageFilter = "";
+    private PackageTreeIndex packageIndex; // Built on first filter use per tree
+    private Set<TreeNode> visibleNodes; // null while unfiltered
+    private int filterMatchCount = -1;
+    private final Map<TreeNode, List<TreeNode>> visibleChildren = new HashMap<>();
 
     public TreeNode getPackageRoot() {
         return packageRoot;
@@ -80,6 +102,44 @@ public class PackageExplorerViewModel extends BaseViewModel {
         return packagesLoading;
     }
 
+    public String getPackageFilter() {
+        return packageFilter;
+    }
+
+    /** Returns the number of leaves matching the filter, or -1 if no filter is set. */
+    public int getFilterMatchCount() {
+        return filterMatchCount;
+    }
+
+    /**
+     * Returns the children of {@code node} that pass the package filter. The tree itself is never
+     * rebuilt for filtering; hidden nodes are only left out here.
+     */
+    public List<TreeNode> getVisibleChildren(TreeNode node) {
+        if (visibleNodes == null) {
+            return node.getChildren();
+        }
+        return visibleChildren.computeIfAbsent(node,
+                n -> n.getChildren().stream().filter(visibleNodes::contains).toList());
+    }
+
+    /**
+     * Filter the package tree to versions whose category, package name, version or remarks contain
+     * every whitespace-separated term of {@code text}.
+     *
+     * @param text filter text; blank to show all packages
+     */
+    public void setPackageFilter(String text) {
+        final var normalized = text == null ? "" : text.strip();
+        if (normalized.equals(packageFilter)) {
+            return;
+        }
+        final var old = this.packageFilter;
+        this.packageFilter = normalized;
+        applyPackageFilter();
+        firePropertyChange(PROP_PACKAGE_FILTER, old, normalized);
+    }
+
     /** Returns whether the given node should appear checked. */
     public boolean isNodeChecked(TreeNode node) {
         return checkState.isEffectivelyChecked(node);
@@ -90,25 +150,75 @@ public class PackageExplorerViewModel extends BaseViewModel {
         return checkState.isEffectivelyGrayed(node);
     }
 
-    /** Kick off initial data loading (packages + device list). */
+    /**
+     * Kick off initial data loading (packages + device list). The catalog snapshot from the last
+     * session, if still valid, is shown right away while both are reloaded in the background; the
+     * snapshot is then refreshed from the reloaded data.
+     */
     public void initialize() {
-        loadPackagesAsync(() -> {
-        });
-        loadDevicesAsync(() -> {
-        });
+        final var snapshot = CatalogSnapshot.load();
+        if (snapshot != null) {
+            setDevices(DeviceList.fromSnapshot(snapshot));
+            setPackageRoot(PackageTree.fromSnapshot(snapshot), true);
+        }
+
+        final var pending = new AtomicInteger(2);
+        final Runnable onLoaded = () -> {
+            if (pending.decrementAndGet() == 0) {
+                saveSnapshotAsync();
+            }
+        };
+        loadPackagesAsync(onLoaded);
+        loadDevicesAsync(onLoaded);
     }
 
-    /** Reload available devices. */
+    /** Reload available devices, bypassing cached CLI output. */
     public void refreshDevices(Runnable onLoaded) {
+        RuyiCliResultCache.invalidate();
         loadDevicesAsync(onLoaded);
     }
 
-    /** Reload the package list for the currently chosen device. */
+    /** Reload the package list for the currently chosen device, bypassing cached CLI output. */
     public void refreshPackages() {
+        RuyiCliResultCache.invalidate();
         loadPackagesAsync(() -> {
         });
     }
 
+    /**
+     * Patch the current tree after package operations instead of reloading it. Only the downloaded
+     * flags of the affected leaves change; expansion and the check state of all other leaves are
+     * kept. Falls back to {@link #refreshPackages()} if an operation is not part of the tree.
+     *
+     * @param completed the operations that succeeded
+     */
+    public void applyCompletedOperations(List<PackageOperation> completed) {
+        if (completed.isEmpty()) {
+            return;
+        }
+        if (packageRoot == null) {
+            refreshPackages();
+            return;
+        }
+
+        final var leaves = PackageTree.indexLeaves(packageRoot);
+        final var changed = new LinkedHashSet<TreeNode>();
+        for (final var op : completed) {
+            final var leaf = leaves.get(op.packageRef());
+            if (leaf == null) {
+                refreshPackages();
+                return;
+            }
+            leaf.setDownloaded(!op.uninstall());
+            checkState.reset(leaf);
+            // Ancestors derive their checked and grayed state from the leaf
+            for (var node = leaf; node != null; node = node.getParent()) {
+                changed.add(node);
+            }
+        }
+        firePropertyChange(PROP_PACKAGE_NODES, null, List.copyOf(changed));
+    }
+
     /**
      * Set the chosen device, update the device-info label, and reload packages.
      *
@@ -130,14 +240,18 @@ public class PackageExplorerViewModel extends BaseViewModel {
         firePropertyChange(PROP_INFO_PANE_TEXT, old, infoPaneText);
     }
 
-    /** Propagate a check-state change recursively from {@code node} downward. */
+    /**
+     * Propagate a check-state change recursively from {@code node} downward. While a filter is set
+     * only visible leaves are affected.
+     */
     public void setNodeChecked(TreeNode node, boolean checked) {
         setSelectedRecursively(node, checked);
     }
 
     /**
      * Collect pending install/uninstall operations by comparing the user-requested check state
-     * against the actual installed state of every leaf node.
+     * against the actual installed state of every leaf node. Uninstalls are ordered before
+     * installs, see {@link PackageOperationScheduler#order}.
      */
     public List<PackageOperation> collectPendingOperations() {
         final var ops = new ArrayList<PackageOperation>();
@@ -148,7 +262,7 @@ public class PackageExplorerViewModel extends BaseViewModel {
                 ops.add(new PackageOperation(leaf.getPackageRef(), true));
             }
         }
-        return ops;
+        return PackageOperationScheduler.order(ops);
     }
 
     /** Build a human-readable confirmation message for a list of pending operations. */
@@ -223,7 +337,7 @@ public class PackageExplorerViewModel extends BaseViewModel {
 
                 uiExecutor.accept(() -> {
                     try {
-                        setPackageRoot(root);
+                        setPackageRoot(root, false);
                     } finally {
                         setPackagesLoading(false);
                         onFinished.run();
@@ -271,14 +385,53 @@ public class PackageExplorerViewModel extends BaseViewModel {
         job.schedule();
     }
 
-    private void setPackageRoot(TreeNode root) {
+    private void saveSnapshotAsync() {
+        final var job = Job.create("Saving package catalog snapshot", monitor -> {
+            try {
+                CatalogSnapshot.capture().save();
+            } catch (Exception e) {
+                Activator.getLogger().logWarning(
+                        "[PackageExplorerViewModel] Failed to capture catalog snapshot", e);
+            }
+            return Status.OK_STATUS;
+        });
+        job.setSystem(true);
+        job.schedule();
+    }
+
+    private void setPackageRoot(TreeNode root, boolean snapshot) {
         final var old = this.packageRoot;
         this.packageRoot = root;
-        checkState.clear();
+        if (showingSnapshot && root != null) {
+            // Keep what the user checked on the placeholder tree
+            checkState.carryOver(PackageTree.indexLeaves(root));
+        } else {
+            checkState.clear();
+        }
+        showingSnapshot = snapshot;
+        packageIndex = null;
+        applyPackageFilter();
         firePropertyChange(PROP_PACKAGE_ROOT, old, root);
         updateSelectedNode(null);
     }
 
+    private void applyPackageFilter() {
+        visibleChildren.clear();
+        if (packageFilter.isEmpty() || packageRoot == null) {
+            visibleNodes = null;
+            filterMatchCount = -1;
+            return;
+        }
+        if (packageIndex == null) {
+            packageIndex = PackageTreeIndex.build(packageRoot);
+        }
+        final var matches = packageIndex.query(packageFilter);
+        final var visible = new HashSet<TreeNode>();
+        PackageTreeIndex.addWithAncestors(matches, visible);
+        visibleNodes = visible;
+        filterMatchCount = matches.size();
+    }
+
     private void setPackagesLoading(boolean loading) {
         final var old = this.packagesLoading;
         this.packagesLoading = loading;
@@ -366,8 +519,7 @@ public class PackageExplorerViewModel extends BaseViewModel {
         if (node.isLeaf()) {
             checkState.setSelected(node, checked);
         } else {
-            final var children = node.getChildren();
-            for (final var child : children) {
+            for (final var child : getVisibleChildren(node)) {
                 setSelectedRecursively(child, checked);
             }
         }
@@ -1,5 +1,6 @@
 package org.ruyisdk.packages.viewmodel;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 import org.eclipse.core.runtime.Status;
@@ -11,9 +12,9 @@ import org.ruyisdk.packages.service.PackageOperationRunner;
  * ViewModel for the package-operation dialog.
  *
  * <p>
- * Manages a background {@link Job} that runs install/uninstall operations sequentially, appending
- * output text and updating the running state through property-change events. All events fire on the
- * SWT UI thread.
+ * Manages a background {@link Job} that runs install/uninstall operations (uninstalls first),
+ * appending output text and updating the running state through property-change events. All events
+ * fire on the SWT UI thread.
  */
 public class PackageOperationViewModel extends BaseViewModel {
 
@@ -25,7 +26,8 @@ public class PackageOperationViewModel extends BaseViewModel {
 
     private final List<PackageOperation> operations;
     private final PackageOperationRunner runner = new PackageOperationRunner();
-    private final Runnable onCompleted;
+    private final Consumer<List<PackageOperation>> onCompleted;
+    private final List<PackageOperation> succeeded = new ArrayList<>();
 
     private final StringBuffer outputBuffer = new StringBuffer();
     private volatile boolean running;
@@ -36,10 +38,11 @@ public class PackageOperationViewModel extends BaseViewModel {
      *
      * @param uiExecutor posts a {@link Runnable} to the UI thread
      * @param operations the operations to execute
-     * @param onCompleted called on the UI thread after all operations finish (may be {@code null})
+     * @param onCompleted called on the UI thread after all operations finish, with the operations
+     *        that succeeded (may be {@code null})
      */
     public PackageOperationViewModel(Consumer<Runnable> uiExecutor,
-            List<PackageOperation> operations, Runnable onCompleted) {
+            List<PackageOperation> operations, Consumer<List<PackageOperation>> onCompleted) {
         super(uiExecutor);
         this.operations = List.copyOf(operations);
         this.onCompleted = onCompleted;
@@ -77,6 +80,7 @@ public class PackageOperationViewModel extends BaseViewModel {
 
                 @Override
                 public void onStepDone(int index) {
+                    succeeded.add(operations.get(index));
                     appendOutput("Done.\n\n");
                 }
 
@@ -85,6 +89,13 @@ public class PackageOperationViewModel extends BaseViewModel {
                     appendOutput("Failed: " + errorMessage + "\n\n");
                 }
 
+                @Override
+                public void onStats(PackageOperationRunner.RunStats stats) {
+                    appendOutput(String.format("%n%d succeeded, %d failed in %.1f s (%.1f/min).%n",
+                            stats.succeeded(), stats.failed(), stats.elapsed().toMillis() / 1000.0,
+                            stats.operationsPerMinute()));
+                }
+
                 @Override
                 public void onAllFinished(boolean wasCancelled) {
                     final var msg = wasCancelled ? "\nCancelled by user.\n"
@@ -93,7 +104,8 @@ public class PackageOperationViewModel extends BaseViewModel {
                     running = false;
                     firePropertyChange(PROP_RUNNING, true, false);
                     if (onCompleted != null) {
-                        uiExecutor.accept(onCompleted);
+                        final var completed = List.copyOf(succeeded);
+                        uiExecutor.accept(() -> onCompleted.accept(completed));
                     }
                 }
             }, () -> monitor.isCanceled());
@@ -107,7 +119,7 @@ public class PackageOperationViewModel extends BaseViewModel {
         job.schedule();
     }
 
-    /** Request abort. The current operation will finish before stopping. */
+    /** Request abort. The running ruyi process is stopped and no further operations start. */
     public void abort() {
         if (job != null) {
             job.cancel();
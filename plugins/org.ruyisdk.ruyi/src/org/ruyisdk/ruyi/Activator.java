@@ -7,6 +7,7 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.ruyisdk.core.util.PluginLogger;
 import org.ruyisdk.ruyi.core.workspace.WorkspaceProjectsMonitor;
+import org.ruyisdk.ruyi.services.RuyiCliResultCache;
 
 /**
  * Activator for the Ruyi plugin.
@@ -46,6 +47,7 @@ public class Activator extends AbstractUIPlugin {
         LOGGER.logInfo("Ruyi plugin stopping");
 
         WorkspaceProjectsMonitor.getInstance().dispose();
+        RuyiCliResultCache.dispose();
         plugin = null;
         super.stop(context);
 
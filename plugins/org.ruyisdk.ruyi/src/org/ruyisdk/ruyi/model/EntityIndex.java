@@ -0,0 +1,223 @@
+package org.ruyisdk.ruyi.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory index over the output of {@code ruyi entity list}.
+ *
+ * <p>
+ * Entities are parsed once and stored partitioned by type, with lookup by reference (e.g.
+ * {@code "device:milkv-duo"}). The {@code related_refs} and {@code reverse_refs} of every entity
+ * are resolved up front, so walking the entity graph costs time proportional to the number of edges
+ * visited instead of re-running and re-parsing the CLI query.
+ *
+ * <p>
+ * Reverse adjacency combines the declared {@code reverse_refs} with the inverse of every
+ * {@code related_refs} edge, so it is complete even if the CLI only reports one direction.
+ * References to entities missing from the index are skipped.
+ *
+ * <p>
+ * Packages are not entities, so lookups such as "toolchains related to a device" still go through
+ * {@code ruyi list --related-to-entity}.
+ */
+public final class EntityIndex {
+
+    private static final EntityIndex EMPTY = new EntityIndex(List.of());
+
+    private final Map<String, Map<String, EntityInfo>> byType = new LinkedHashMap<>();
+    private final Map<String, EntityInfo> byRef = new LinkedHashMap<>();
+    private final Map<String, List<EntityInfo>> related = new LinkedHashMap<>();
+    private final Map<String, List<EntityInfo>> reverse = new LinkedHashMap<>();
+
+    private EntityIndex(Collection<? extends EntityInfo> entities) {
+        for (final var entity : entities) {
+            byType.computeIfAbsent(entity.getEntityType(), k -> new LinkedHashMap<>())
+                    .put(entity.getEntityId(), entity);
+            byRef.put(toRef(entity), entity);
+        }
+
+        final var reverseRefs = new LinkedHashMap<String, Set<String>>();
+        for (final var entry : byRef.entrySet()) {
+            final var ref = entry.getKey();
+            final var entity = entry.getValue();
+            related.put(ref, resolve(entity.getRelatedRefs()));
+            final var inbound = reverseRefs.computeIfAbsent(ref, k -> new LinkedHashSet<>());
+            inbound.addAll(entity.getReverseRefs());
+            for (final var target : entity.getRelatedRefs()) {
+                reverseRefs.computeIfAbsent(target, k -> new LinkedHashSet<>()).add(ref);
+            }
+        }
+        for (final var ref : byRef.keySet()) {
+            reverse.put(ref, resolve(reverseRefs.get(ref)));
+        }
+    }
+
+    /**
+     * Returns an index containing no entities.
+     *
+     * @return empty index
+     */
+    public static EntityIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index from already parsed entities. Later duplicates of a reference replace earlier
+     * ones.
+     *
+     * @param entities entities to index
+     * @return the index
+     */
+    public static EntityIndex of(Collection<? extends EntityInfo> entities) {
+        return new EntityIndex(entities);
+    }
+
+    /**
+     * Parses raw {@code ruyi entity list} output into an index.
+     *
+     * @param rawOutput the raw string output from the CLI command
+     * @return the index; never {@code null}
+     */
+    public static EntityIndex parse(String rawOutput) {
+        return new EntityIndex(EntityInfoParser.parseAll(rawOutput));
+    }
+
+    /**
+     * Returns the reference string for an entity, e.g. {@code "device:milkv-duo"}.
+     *
+     * @param entity the entity
+     * @return reference in {@code type:id} form
+     */
+    public static String toRef(EntityInfo entity) {
+        return toRef(entity.getEntityType(), entity.getEntityId());
+    }
+
+    /**
+     * Returns the reference string for an entity type and id.
+     *
+     * @param entityType entity type, e.g. {@code "device"}
+     * @param entityId entity id, e.g. {@code "milkv-duo"}
+     * @return reference in {@code type:id} form
+     */
+    public static String toRef(String entityType, String entityId) {
+        return entityType + ":" + entityId;
+    }
+
+    /**
+     * Looks up an entity by reference.
+     *
+     * @param ref reference such as {@code "device:milkv-duo"}
+     * @return the entity, or {@code null} if not indexed
+     */
+    public EntityInfo get(String ref) {
+        return byRef.get(ref);
+    }
+
+    /**
+     * Looks up an entity by type and id.
+     *
+     * @param entityType entity type, e.g. {@code "device"}
+     * @param entityId entity id
+     * @return the entity, or {@code null} if not indexed
+     */
+    public EntityInfo get(String entityType, String entityId) {
+        final var entities = byType.get(entityType);
+        return entities != null ? entities.get(entityId) : null;
+    }
+
+    /**
+     * Returns all entities of a type, in CLI output order.
+     *
+     * @param entityType entity type, e.g. {@code "device"}
+     * @return unmodifiable list; never {@code null}
+     */
+    public List<EntityInfo> getEntities(String entityType) {
+        final var entities = byType.get(entityType);
+        return entities != null ? List.copyOf(entities.values()) : List.of();
+    }
+
+    /**
+     * Returns all entities of the given model class, in CLI output order.
+     *
+     * @param <T> entity model type
+     * @param type entity model class, e.g. {@code DeviceEntityInfo.class}
+     * @return unmodifiable list; never {@code null}
+     */
+    public <T extends EntityInfo> List<T> getEntities(Class<T> type) {
+        final var result = new ArrayList<T>();
+        for (final var entity : byRef.values()) {
+            if (type.isInstance(entity)) {
+                result.add(type.cast(entity));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns all device entities, in CLI output order.
+     *
+     * @return unmodifiable list; never {@code null}
+     */
+    public List<DeviceEntityInfo> getDevices() {
+        return getEntities(DeviceEntityInfo.class);
+    }
+
+    /**
+     * Returns the indexed entities that {@code ref} lists in its {@code related_refs}.
+     *
+     * @param ref reference such as {@code "device:milkv-duo"}
+     * @return unmodifiable list; empty if {@code ref} is not indexed
+     */
+    public List<EntityInfo> getRelated(String ref) {
+        return related.getOrDefault(ref, List.of());
+    }
+
+    /**
+     * Returns the indexed entities that refer to {@code ref}.
+     *
+     * @param ref reference such as {@code "uarch:xuantie-c906"}
+     * @return unmodifiable list; empty if {@code ref} is not indexed
+     */
+    public List<EntityInfo> getReverse(String ref) {
+        return reverse.getOrDefault(ref, List.of());
+    }
+
+    /**
+     * Returns the indexed entity types, in order of first appearance.
+     *
+     * @return unmodifiable set of entity types
+     */
+    public Set<String> getEntityTypes() {
+        return Collections.unmodifiableSet(byType.keySet());
+    }
+
+    /**
+     * Returns the number of indexed entities.
+     *
+     * @return entity count
+     */
+    public int size() {
+        return byRef.size();
+    }
+
+    private List<EntityInfo> resolve(Collection<String> refs) {
+        if (refs == null || refs.isEmpty()) {
+            return List.of();
+        }
+        final var result = new ArrayList<EntityInfo>(refs.size());
+        for (final var ref : refs) {
+            final var entity = byRef.get(ref);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,368 @@
+package org.ruyisdk.ruyi.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.ruyisdk.core.basedir.XdgDirs;
+import org.ruyisdk.core.config.Constants;
+import org.ruyisdk.core.util.PluginLogger;
+import org.ruyisdk.ruyi.Activator;
+import org.ruyisdk.ruyi.model.DeviceEntityInfo;
+import org.ruyisdk.ruyi.util.RuyiFileUtils;
+
+/**
+ * On-disk snapshot of the parsed package and entity catalog, used to show the last known catalog
+ * immediately on startup while fresh data is loaded in the background.
+ *
+ * <p>
+ * The snapshot is a small gzip-compressed binary file under the IDE's XDG cache directory. It is
+ * stamped with the ruyi version, the size and modification time of the ruyi binary and the commit
+ * of ruyi's package index checkout. {@link #load()} only returns a snapshot whose binary and commit
+ * stamp still match what is on disk, so checking it never runs ruyi.
+ *
+ * <p>
+ * Installed state can still change outside the IDE, so callers must treat a loaded snapshot as a
+ * placeholder and revalidate it with {@link #capture()}.
+ */
+public final class CatalogSnapshot {
+
+    private static final PluginLogger LOGGER = Activator.getLogger();
+
+    private static final int MAGIC = 0x52434154; // "RCAT"
+    private static final int FORMAT_VERSION = 2;
+    private static final String FILE_NAME = "catalog-snapshot.bin";
+
+    /**
+     * Identifies the ruyi installation and package index a snapshot was taken from.
+     *
+     * @param ruyiVersion ruyi version string, or empty if unknown
+     * @param binarySize size of the ruyi binary in bytes, or -1 if unknown
+     * @param binaryModifiedMillis modification time of the ruyi binary, or -1 if unknown
+     * @param repoCommit commit of the package index checkout, or empty if unknown
+     */
+    public record Stamp(String ruyiVersion, long binarySize, long binaryModifiedMillis,
+            String repoCommit) {
+
+        /**
+         * Returns whether the on-disk state described by this stamp equals {@code other}'s. The
+         * version string is not compared because it is derived from the binary.
+         *
+         * @param other stamp to compare with
+         * @return true if both stamps describe the same binary and index commit
+         */
+        public boolean matches(Stamp other) {
+            return other != null && binarySize == other.binarySize
+                    && binaryModifiedMillis == other.binaryModifiedMillis
+                    && repoCommit.equals(other.repoCommit);
+        }
+    }
+
+    private final Stamp stamp;
+    private final List<RuyiCli.PackageListEntryInfo> packages;
+    private final List<DeviceEntityInfo> devices;
+    private final List<RuyiCli.ToolchainInfo> toolchains;
+    private final List<RuyiCli.EmulatorInfo> emulators;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param stamp origin of the catalog
+     * @param packages all package list entries
+     * @param devices device entities
+     * @param toolchains toolchain packages
+     * @param emulators emulator packages
+     */
+    public CatalogSnapshot(Stamp stamp, List<RuyiCli.PackageListEntryInfo> packages,
+            List<DeviceEntityInfo> devices, List<RuyiCli.ToolchainInfo> toolchains,
+            List<RuyiCli.EmulatorInfo> emulators) {
+        this.stamp = Objects.requireNonNull(stamp);
+        this.packages = List.copyOf(packages);
+        this.devices = List.copyOf(devices);
+        this.toolchains = List.copyOf(toolchains);
+        this.emulators = List.copyOf(emulators);
+    }
+
+    public Stamp getStamp() {
+        return stamp;
+    }
+
+    public List<RuyiCli.PackageListEntryInfo> getPackages() {
+        return packages;
+    }
+
+    public List<DeviceEntityInfo> getDevices() {
+        return devices;
+    }
+
+    public List<RuyiCli.ToolchainInfo> getToolchains() {
+        return toolchains;
+    }
+
+    public List<RuyiCli.EmulatorInfo> getEmulators() {
+        return emulators;
+    }
+
+    /**
+     * Queries the current catalog from the ruyi CLI. Blocks; queries go through
+     * {@link RuyiCliResultCache}, so output already fetched by other views is reused.
+     *
+     * @return fresh snapshot
+     */
+    public static CatalogSnapshot capture() {
+        final var installDir = RuyiFileUtils.findInstallPathWithRuyi();
+        final var version = RuyiCliVersionSupport.getCachedInstalledVersion(installDir);
+        final var stamp = observeStamp(installDir, version != null ? version.toString() : "");
+
+        final var catalog = RuyiCli.getPackageCatalog();
+        return new CatalogSnapshot(stamp, catalog.getPackages(),
+                RuyiCli.getEntityIndex().getDevices(), catalog.getToolchains(),
+                catalog.getEmulators());
+    }
+
+    /**
+     * Loads the snapshot from the default location if it was taken from the current ruyi binary and
+     * package index commit.
+     *
+     * @return the snapshot, or {@code null} if missing, unreadable or stale
+     */
+    public static CatalogSnapshot load() {
+        final CatalogSnapshot snapshot;
+        try {
+            snapshot = read(getDefaultPath());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.logWarning("[CatalogSnapshot] Ignoring unreadable snapshot: " + e.getMessage());
+            return null;
+        }
+        final var current = observeStamp(RuyiFileUtils.findInstallPathWithRuyi(), "");
+        return snapshot.stamp.matches(current) ? snapshot : null;
+    }
+
+    /** Writes this snapshot to the default location, logging instead of failing. */
+    public void save() {
+        try {
+            write(getDefaultPath());
+        } catch (IOException e) {
+            LOGGER.logWarning("[CatalogSnapshot] Failed to save snapshot", e);
+        }
+    }
+
+    /**
+     * Returns the default snapshot file.
+     *
+     * @return path under the IDE's XDG cache directory
+     */
+    public static Path getDefaultPath() {
+        return XdgDirs.getCacheDir(Constants.AppInfo.AppDir).resolve(FILE_NAME);
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file snapshot file
+     * @return the snapshot
+     * @throws IOException if the file is missing, corrupt or of another format version
+     */
+    public static CatalogSnapshot read(Path file) throws IOException {
+        try (var in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format: " + file);
+            }
+            final var stamp = new Stamp(in.readUTF(), in.readLong(), in.readLong(), in.readUTF());
+
+            final var packageCount = in.readInt();
+            final var packages = new ArrayList<RuyiCli.PackageListEntryInfo>(packageCount);
+            for (int i = 0; i < packageCount; i++) {
+                final var category = in.readUTF();
+                final var name = in.readUTF();
+                final var versionCount = in.readInt();
+                final var versions = new ArrayList<RuyiCli.PackageVersionInfo>(versionCount);
+                for (int j = 0; j < versionCount; j++) {
+                    versions.add(new RuyiCli.PackageVersionInfo(in.readUTF(), readStrings(in),
+                            in.readBoolean()));
+                }
+                packages.add(new RuyiCli.PackageListEntryInfo(category, name, versions));
+            }
+
+            final var deviceCount = in.readInt();
+            final var devices = new ArrayList<DeviceEntityInfo>(deviceCount);
+            for (int i = 0; i < deviceCount; i++) {
+                devices.add(new DeviceEntityInfo(in.readUTF(), readNullable(in), readStrings(in),
+                        readStrings(in)));
+            }
+
+            final var toolchainCount = in.readInt();
+            final var toolchains = new ArrayList<RuyiCli.ToolchainInfo>(toolchainCount);
+            for (int i = 0; i < toolchainCount; i++) {
+                toolchains.add(new RuyiCli.ToolchainInfo(in.readUTF(), readStrings(in),
+                        readStrings(in), in.readBoolean()));
+            }
+
+            final var emulatorCount = in.readInt();
+            final var emulators = new ArrayList<RuyiCli.EmulatorInfo>(emulatorCount);
+            for (int i = 0; i < emulatorCount; i++) {
+                emulators.add(
+                        new RuyiCli.EmulatorInfo(in.readUTF(), readStrings(in), readStrings(in)));
+            }
+            return new CatalogSnapshot(stamp, packages, devices, toolchains, emulators);
+        } catch (RuntimeException e) {
+            // e.g. negative counts from a corrupt file
+            throw new IOException("Corrupt snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Writes this snapshot to {@code file}, replacing it atomically where the file system allows.
+     *
+     * @param file snapshot file
+     * @throws IOException if writing fails
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        final var tmp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (var out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                writeTo(out);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(stamp.ruyiVersion());
+        out.writeLong(stamp.binarySize());
+        out.writeLong(stamp.binaryModifiedMillis());
+        out.writeUTF(stamp.repoCommit());
+
+        out.writeInt(packages.size());
+        for (final var entry : packages) {
+            out.writeUTF(entry.getCategory());
+            out.writeUTF(entry.getName());
+            out.writeInt(entry.getVersions().size());
+            for (final var version : entry.getVersions()) {
+                out.writeUTF(Objects.toString(version.getSemver(), ""));
+                writeStrings(out, version.getRemarks());
+                out.writeBoolean(version.isInstalled());
+            }
+        }
+
+        out.writeInt(devices.size());
+        for (final var device : devices) {
+            out.writeUTF(device.getEntityId());
+            writeNullable(out, device.getDisplayName());
+            writeStrings(out, device.getRelatedRefs());
+            writeStrings(out, device.getReverseRefs());
+        }
+
+        out.writeInt(toolchains.size());
+        for (final var toolchain : toolchains) {
+            out.writeUTF(toolchain.getName());
+            writeStrings(out, toolchain.getVersions());
+            writeStrings(out, toolchain.getQuirks());
+            out.writeBoolean(toolchain.hasIncludedSysroot());
+        }
+
+        out.writeInt(emulators.size());
+        for (final var emulator : emulators) {
+            out.writeUTF(emulator.getName());
+            writeStrings(out, emulator.getVersions());
+            writeStrings(out, emulator.getQuirks());
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (final var value : values) {
+            out.writeUTF(Objects.toString(value, ""));
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        final var count = in.readInt();
+        final var values = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Stamp observeStamp(String installDir, String ruyiVersion) {
+        long size = -1;
+        long modified = -1;
+        if (installDir != null && !installDir.isEmpty()) {
+            final var binary = Path.of(installDir, "ruyi");
+            try {
+                size = Files.size(binary);
+                modified = Files.getLastModifiedTime(binary).toMillis();
+            } catch (IOException e) {
+                // leave unknown
+            }
+        }
+        return new Stamp(ruyiVersion, size, modified, readRepoCommit());
+    }
+
+    /**
+     * Reads the checked-out commit of ruyi's package index from its git metadata without running
+     * git.
+     */
+    private static String readRepoCommit() {
+        final var gitDir = RuyiCliResultCache.getRepoCheckoutDir().resolve(".git");
+        try {
+            final var head = Files.readString(gitDir.resolve("HEAD")).strip();
+            if (!head.startsWith("ref:")) {
+                return head;
+            }
+            final var ref = head.substring("ref:".length()).strip();
+            final var refFile = gitDir.resolve(ref);
+            if (Files.isRegularFile(refFile)) {
+                return Files.readString(refFile).strip();
+            }
+            final var packedRefs = gitDir.resolve("packed-refs");
+            if (Files.isRegularFile(packedRefs)) {
+                for (final var line : Files.readAllLines(packedRefs)) {
+                    if (line.endsWith(" " + ref)) {
+                        return line.substring(0, line.indexOf(' '));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // not synced yet
+        }
+        return "";
+    }
+}
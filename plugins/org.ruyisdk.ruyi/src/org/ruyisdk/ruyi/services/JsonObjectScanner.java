@@ -0,0 +1,64 @@
+package org.ruyisdk.ruyi.services;
+
+/**
+ * Character-level state machine locating top-level JSON objects in porcelain output.
+ *
+ * <p>
+ * Braces inside string literals do not count, and text between objects (log lines, warnings) is
+ * skipped. The state carries over between calls, so the same scanner serves whole buffers and
+ * output fed line by line. Not thread-safe.
+ */
+final class JsonObjectScanner {
+
+    /** What a scanned character means for the enclosing top-level object. */
+    enum Event {
+        /** Nothing changed at the top level. */
+        NONE,
+        /** The character opens a top-level object. */
+        START,
+        /** The character closes a top-level object. */
+        END
+    }
+
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    /**
+     * Feeds one character.
+     *
+     * @param c the next character of the output
+     * @return whether {@code c} opens or closes a top-level object
+     */
+    Event feed(char c) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+        } else if (c == '{') {
+            depth++;
+            if (depth == 1) {
+                return Event.START;
+            }
+        } else if (c == '}') {
+            if (depth > 0) {
+                depth--;
+                if (depth == 0) {
+                    return Event.END;
+                }
+            }
+        } else if (c == '"' && depth > 0) {
+            inString = true;
+        }
+        return Event.NONE;
+    }
+
+    /** Returns whether the scanner is inside a top-level object. */
+    boolean isInsideObject() {
+        return depth > 0;
+    }
+}
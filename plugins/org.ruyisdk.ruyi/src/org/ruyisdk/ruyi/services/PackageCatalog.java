@@ -0,0 +1,73 @@
+package org.ruyisdk.ruyi.services;
+
+import java.util.List;
+
+/**
+ * Immutable view over one full {@code ruyi list} of all packages.
+ *
+ * <p>
+ * The listing is parsed once. Toolchains, emulators and the package tree are all derived from the
+ * same parse, so views that need different slices of the catalog do not launch ruyi or parse its
+ * output again.
+ */
+public final class PackageCatalog {
+
+    private final List<RuyiCli.PackageListEntryInfo> packages;
+    private final List<RuyiCli.ToolchainInfo> toolchains;
+    private final List<RuyiCli.EmulatorInfo> emulators;
+    private final List<RuyiCli.PackageTreeCategoryInfo> packageTree;
+
+    PackageCatalog(List<RuyiCli.PackageListEntryInfo> packages,
+            List<RuyiCli.ToolchainInfo> toolchains, List<RuyiCli.EmulatorInfo> emulators) {
+        this.packages = List.copyOf(packages);
+        this.toolchains = List.copyOf(toolchains);
+        this.emulators = List.copyOf(emulators);
+        this.packageTree = List.copyOf(RuyiCliParsingSupport.toPackageTree(this.packages));
+    }
+
+    /**
+     * Parses raw output of a full {@code ruyi --porcelain list}.
+     *
+     * @param rawOutput the raw string output from the CLI command
+     * @return the catalog; never {@code null}
+     */
+    public static PackageCatalog parse(String rawOutput) {
+        return RuyiCliParsingSupport.parsePackageCatalog(rawOutput);
+    }
+
+    /**
+     * Returns all packages, in CLI output order.
+     *
+     * @return unmodifiable list
+     */
+    public List<RuyiCli.PackageListEntryInfo> getPackages() {
+        return packages;
+    }
+
+    /**
+     * Returns the toolchain packages with their quirks and sysroot information.
+     *
+     * @return unmodifiable list
+     */
+    public List<RuyiCli.ToolchainInfo> getToolchains() {
+        return toolchains;
+    }
+
+    /**
+     * Returns the emulator packages with their quirks.
+     *
+     * @return unmodifiable list
+     */
+    public List<RuyiCli.EmulatorInfo> getEmulators() {
+        return emulators;
+    }
+
+    /**
+     * Returns the packages grouped for tree rendering.
+     *
+     * @return unmodifiable list of categories
+     */
+    public List<RuyiCli.PackageTreeCategoryInfo> getPackageTree() {
+        return packageTree;
+    }
+}
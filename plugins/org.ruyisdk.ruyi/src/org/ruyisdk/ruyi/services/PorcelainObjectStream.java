@@ -0,0 +1,90 @@
+package org.ruyisdk.ruyi.services;
+
+import java.util.function.Consumer;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Incremental parser for porcelain output, fed line by line as the ruyi process writes it.
+ *
+ * <p>
+ * Only the JSON object currently being received is buffered. Each complete top-level object is
+ * parsed and handed to the sink right away, so consumers can start working before the process
+ * exits. Objects are located with the same {@link JsonObjectScanner} as the buffered parsers, and
+ * malformed or truncated objects are dropped.
+ *
+ * <p>
+ * Instances are meant to be used as {@link RuyiCliRequest.Builder#lineCallback(Consumer)} and are
+ * not thread-safe.
+ */
+final class PorcelainObjectStream implements Consumer<String> {
+
+    private final Consumer<JSONObject> sink;
+    private final JsonObjectScanner scanner = new JsonObjectScanner();
+    private final StringBuilder current = new StringBuilder();
+
+    private PorcelainObjectStream(Consumer<JSONObject> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Creates a stream emitting every complete JSON object.
+     *
+     * @param sink receives parsed objects
+     * @return line consumer
+     */
+    static PorcelainObjectStream objects(Consumer<JSONObject> sink) {
+        return new PorcelainObjectStream(sink);
+    }
+
+    /**
+     * Creates a stream emitting news list items ({@code newsitem-v1}).
+     *
+     * @param sink receives parsed items
+     * @return line consumer
+     */
+    static PorcelainObjectStream newsItems(Consumer<RuyiCli.NewsListItemInfo> sink) {
+        return new PorcelainObjectStream(o -> {
+            final var item = RuyiCliParsingSupport.toNewsListItem(o);
+            if (item != null) {
+                sink.accept(item);
+            }
+        });
+    }
+
+    @Override
+    public void accept(String line) {
+        if (line == null) {
+            return;
+        }
+        int from = scanner.isInsideObject() ? 0 : -1;
+        for (int i = 0, n = line.length(); i < n; i++) {
+            final var event = scanner.feed(line.charAt(i));
+            if (event == JsonObjectScanner.Event.START) {
+                from = i;
+            } else if (event == JsonObjectScanner.Event.END) {
+                current.append(line, from, i + 1);
+                emit();
+                from = -1;
+            }
+        }
+        if (from >= 0) {
+            // Line breaks are insignificant between JSON tokens, and raw ones cannot occur in
+            // valid string literals.
+            current.append(line, from, line.length()).append('\n');
+        }
+    }
+
+    private void emit() {
+        final JSONObject object;
+        try {
+            object = new JSONObject(current.toString());
+        } catch (JSONException e) {
+            // Skip malformed objects.
+            return;
+        } finally {
+            current.setLength(0);
+        }
+        sink.accept(object);
+    }
+}
@@ -0,0 +1,98 @@
+package org.ruyisdk.ruyi.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Reads one output stream of a ruyi process line by line.
+ *
+ * <p>
+ * Lines are either accumulated completely or, with a positive tail limit, only the last lines are
+ * kept in a ring buffer. The tail mode is meant for streaming commands whose lines are already
+ * consumed through a callback and whose output is only needed for error reporting.
+ */
+final class ProcessOutputReader {
+
+    private final Consumer<String> lineCallback;
+    private final IProgressMonitor monitor;
+    private final int tailLines;
+    private final StringBuilder output = new StringBuilder();
+    private final ArrayDeque<String> tail;
+    private long droppedLines;
+
+    /**
+     * Creates a reader.
+     *
+     * @param lineCallback called for each line (may be {@code null})
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     * @param tailLines number of trailing lines to keep, 0 to keep all output
+     */
+    ProcessOutputReader(Consumer<String> lineCallback, IProgressMonitor monitor, int tailLines) {
+        this.lineCallback = lineCallback;
+        this.monitor = monitor;
+        this.tailLines = tailLines;
+        this.tail = tailLines > 0 ? new ArrayDeque<>(tailLines) : null;
+    }
+
+    /**
+     * Reads {@code in} until end of stream.
+     *
+     * @param in process output stream
+     * @return the accumulated output, or the kept tail prefixed by a note on omitted lines
+     */
+    String read(InputStream in) {
+        try (var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                addLine(line);
+            }
+        } catch (IOException e) {
+            throw RuyiCliException.ioError(e);
+        }
+        checkCancelled();
+        return result();
+    }
+
+    private void addLine(String text) {
+        checkCancelled();
+        if (tail != null) {
+            if (tail.size() == tailLines) {
+                tail.removeFirst();
+                droppedLines++;
+            }
+            tail.addLast(text);
+        } else {
+            output.append(text).append(System.lineSeparator());
+        }
+        if (lineCallback != null) {
+            lineCallback.accept(text);
+        }
+    }
+
+    private void checkCancelled() {
+        if (monitor != null && monitor.isCanceled()) {
+            throw RuyiCliException.cancelled();
+        }
+    }
+
+    private String result() {
+        if (tail == null) {
+            return output.toString();
+        }
+        final var sb = new StringBuilder();
+        if (droppedLines > 0) {
+            sb.append(String.format("... (%d earlier lines omitted)", droppedLines))
+                    .append(System.lineSeparator());
+        }
+        for (final var kept : tail) {
+            sb.append(kept).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
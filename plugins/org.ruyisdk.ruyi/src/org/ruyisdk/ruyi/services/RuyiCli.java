@@ -7,8 +7,10 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.ruyisdk.ruyi.model.EntityIndex;
 import org.ruyisdk.ruyi.model.TelemetryMode;
 import org.ruyisdk.ruyi.util.RuyiFileUtils;
 
@@ -351,12 +353,32 @@ public class RuyiCli {
         }
     }
 
+    private record CachedEntityIndex(long generation, EntityIndex index) {
+    }
+
+    private static volatile CachedEntityIndex entityIndex;
+
+    private record CachedPackageCatalog(long generation, PackageCatalog catalog) {
+    }
+
+    private static final ReentrantLock PACKAGE_CATALOG_LOCK = new ReentrantLock();
+    private static volatile CachedPackageCatalog packageCatalog;
+
     /** Lists available profiles as reported by the ruyi CLI. */
     public static List<ProfileInfo> listProfiles() {
+        return listProfiles(null);
+    }
+
+    /**
+     * Lists available profiles as reported by the ruyi CLI.
+     *
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     * @return parsed profile entries
+     */
+    public static List<ProfileInfo> listProfiles(IProgressMonitor monitor) {
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).list().profiles().end().build();
-        final var result = request.execute();
-        return parseProfilesFromString(result.getOutput());
+                .porcelain(true).monitor(monitor).list().profiles().end().build();
+        return parseProfilesFromString(RuyiCliResultCache.getOutput(request));
     }
 
     /**
@@ -369,12 +391,19 @@ public class RuyiCli {
         return RuyiCliParsingSupport.parseProfilesFromString(input);
     }
 
-    /** Lists available news items using the ruyi CLI. */
-    public static List<NewsListItemInfo> listNewsItems(boolean onlyUnread) {
-        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).news().list(onlyUnread).end().build();
-        final var result = request.execute();
-        return parseNewsListFromString(result.getOutput());
+    /**
+     * Lists available news items using the ruyi CLI, handing each item to {@code sink} as soon as
+     * ruyi has written it. Only the item being received is buffered, not the whole output.
+     *
+     * @param onlyUnread whether to list unread items only
+     * @param sink receives each parsed item on the output reader thread
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     */
+    public static void streamNewsItems(boolean onlyUnread, Consumer<NewsListItemInfo> sink,
+            IProgressMonitor monitor) {
+        RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(true)
+                .separateErrorStream(true).lineCallback(PorcelainObjectStream.newsItems(sink))
+                .monitor(monitor).news().list(onlyUnread).end().build().execute();
     }
 
     /**
@@ -391,11 +420,36 @@ public class RuyiCli {
         // news content.
         // The hang is due to a unresolved bug.
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).timeoutSeconds(3).news().read(idOrOrdinal).end().build();
+                .porcelain(true).separateErrorStream(true).timeoutSeconds(3).news()
+                .read(idOrOrdinal).end().build();
         final var result = request.execute();
         return parseNewsReadFromString(result.getOutput());
     }
 
+    /**
+     * Reads several news items with one ruyi invocation, marking them all read.
+     *
+     * @param idsOrOrdinals news item IDs or ordinals
+     * @return the read results, in the order ruyi printed them; items ruyi does not know are left
+     *         out
+     */
+    public static List<NewsReadResult> readNewsItems(List<String> idsOrOrdinals) {
+        if (idsOrOrdinals.isEmpty()) {
+            return List.of();
+        }
+        for (final var idOrOrdinal : idsOrOrdinals) {
+            if (idOrOrdinal == null || idOrOrdinal.isBlank()) {
+                throw RuyiCliException.invalidArgument("Invalid news item ID or ordinal");
+            }
+        }
+        // Same workaround as readNewsItem, with a second more for each further item
+        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
+                .porcelain(true).separateErrorStream(true).timeoutSeconds(2 + idsOrOrdinals.size())
+                .news().read(idsOrOrdinals).end().build();
+        final var result = request.execute();
+        return parseNewsReadListFromString(result.getOutput());
+    }
+
     /**
      * Parses news list output.
      *
@@ -416,6 +470,16 @@ public class RuyiCli {
         return RuyiCliParsingSupport.parseNewsReadFromString(input);
     }
 
+    /**
+     * Parses the output of a news read of several items.
+     *
+     * @param input raw news read output
+     * @return parsed news read results, one per news item object
+     */
+    public static List<NewsReadResult> parseNewsReadListFromString(String input) {
+        return RuyiCliParsingSupport.parseNewsReadListFromString(input);
+    }
+
     private static String requireInstallPathResult() {
         return RuyiFileUtils.findInstallPathWithRuyi();
     }
@@ -431,7 +495,11 @@ public class RuyiCli {
         final var request =
                 RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
                         .args(args).experimental(true).workingDirectory(workingDirectory).build();
-        return request.execute().getOutput();
+        try {
+            return request.execute().getOutput();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
     }
 
     // TODO: move to RuyiFileUtils or similar class
@@ -455,7 +523,11 @@ public class RuyiCli {
     public static void updatePackageIndex() {
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
                 .porcelain(true).update().end().build();
-        request.execute();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
     }
 
     /**
@@ -464,8 +536,13 @@ public class RuyiCli {
      * @param remoteUrl remote repository URL
      */
     public static void setRepoRemote(String remoteUrl) {
-        RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
-                .config().set("repo.remote", remoteUrl).end().build().execute();
+        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
+                .porcelain(false).config().set("repo.remote", remoteUrl).end().build();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
     }
 
     /**
@@ -488,7 +565,11 @@ public class RuyiCli {
     public static void setRepoBranch(String branch) {
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
                 .porcelain(false).config().set("repo.branch", branch).end().build();
-        request.execute();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
     }
 
     /**
@@ -509,12 +590,16 @@ public class RuyiCli {
      * @param localPath local path, or null/empty to unset
      */
     public static void setRepoLocal(String localPath) {
-        if (localPath == null || localPath.isBlank()) {
-            RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
-                    .config().unset("repo.local").end().build().execute();
-        } else {
-            RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
-                    .config().set("repo.local", localPath).end().build().execute();
+        try {
+            if (localPath == null || localPath.isBlank()) {
+                RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
+                        .config().unset("repo.local").end().build().execute();
+            } else {
+                RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
+                        .config().set("repo.local", localPath).end().build().execute();
+            }
+        } finally {
+            RuyiCliResultCache.invalidate();
         }
     }
 
@@ -536,9 +621,14 @@ public class RuyiCli {
      * @param enabled true to include pre-release packages
      */
     public static void setPackagesPrereleases(boolean enabled) {
-        RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
-                .config().set("packages.prereleases", enabled ? "true" : "false").end().build()
-                .execute();
+        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
+                .porcelain(false).config().set("packages.prereleases", enabled ? "true" : "false")
+                .end().build();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
     }
 
     /**
@@ -617,6 +707,11 @@ public class RuyiCli {
     /**
      * Lists packages related to an entity.
      *
+     * <p>
+     * This cannot be answered from {@link #getEntityIndex()}: packages are not entities, and the
+     * package-to-entity links live in package manifests that ruyi resolves itself. The output is
+     * cached like other read-only queries instead.
+     *
      * @param entity entity id such as device:milkv-duo
      * @return command result with exit code and captured output
      */
@@ -625,8 +720,9 @@ public class RuyiCli {
             throw RuyiCliException.invalidArgument("Invalid entity");
         }
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).experimental(true).list().relatedToEntity(entity).end().build();
-        return request.execute().getOutput();
+                .porcelain(true).separateErrorStream(true).experimental(true).list()
+                .relatedToEntity(entity).end().build();
+        return RuyiCliResultCache.getOutput(request);
     }
 
     /**
@@ -635,9 +731,49 @@ public class RuyiCli {
      * @return command result with captured output
      */
     public static String listAllPackages() {
+        return listAllPackages(null);
+    }
+
+    private static String listAllPackages(IProgressMonitor monitor) {
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).experimental(true).list().nameContains("").end().build();
-        return request.execute().getOutput();
+                .porcelain(true).separateErrorStream(true).experimental(true).monitor(monitor)
+                .list().nameContains("").end().build();
+        return RuyiCliResultCache.getOutput(request);
+    }
+
+    /**
+     * Returns the catalog of all available packages. The catalog is built from a single full
+     * listing, parsed once, and reused until {@link RuyiCliResultCache} is invalidated.
+     *
+     * @return package catalog
+     */
+    public static PackageCatalog getPackageCatalog() {
+        return getPackageCatalog(null);
+    }
+
+    private static PackageCatalog getPackageCatalog(IProgressMonitor monitor) {
+        final var cached = packageCatalog;
+        if (cached != null && cached.generation() == RuyiCliResultCache.getGeneration()) {
+            return cached.catalog();
+        }
+        // Concurrent callers (e.g. toolchain and emulator loads) share one parse.
+        PACKAGE_CATALOG_LOCK.lock();
+        try {
+            final var generation = RuyiCliResultCache.getGeneration();
+            final var current = packageCatalog;
+            if (current != null && current.generation() == generation) {
+                return current.catalog();
+            }
+            // The previous holder may have been cancelled by the same monitor
+            if (monitor != null && monitor.isCanceled()) {
+                throw RuyiCliException.cancelled();
+            }
+            final var catalog = PackageCatalog.parse(listAllPackages(monitor));
+            packageCatalog = new CachedPackageCatalog(generation, catalog);
+            return catalog;
+        } finally {
+            PACKAGE_CATALOG_LOCK.unlock();
+        }
     }
 
     /**
@@ -651,7 +787,20 @@ public class RuyiCli {
     }
 
     /**
-     * Finds installed toolchain package reference for a board.
+     * Groups already parsed package list entries for tree rendering, like
+     * {@link #parsePackageTreeFromString(String)} does for raw output.
+     *
+     * @param entries parsed package list entries
+     * @return category and package information for tree construction
+     */
+    public static List<PackageTreeCategoryInfo> toPackageTree(List<PackageListEntryInfo> entries) {
+        return RuyiCliParsingSupport.toPackageTree(entries);
+    }
+
+    /**
+     * Finds installed toolchain package reference for a board. Uses
+     * {@link #listRelatedToEntity(String)}, since toolchains are packages and not part of the
+     * entity index.
      *
      * @param boardName board name, with or without {@code device:} prefix
      * @return installed toolchain package reference, or null if none found
@@ -687,8 +836,29 @@ public class RuyiCli {
             throw RuyiCliException.invalidArgument("Invalid entity type");
         }
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).experimental(true).entity().list(type).end().build();
-        return request.execute().getOutput();
+                .porcelain(true).separateErrorStream(true).experimental(true).entity().list(type)
+                .end().build();
+        return RuyiCliResultCache.getOutput(request);
+    }
+
+    /**
+     * Returns an index over all entities known to ruyi. The index is built from a single
+     * {@code ruyi entity list} and reused until {@link RuyiCliResultCache} is invalidated.
+     *
+     * @return entity index
+     */
+    public static EntityIndex getEntityIndex() {
+        final var generation = RuyiCliResultCache.getGeneration();
+        final var cached = entityIndex;
+        if (cached != null && cached.generation() == generation) {
+            return cached.index();
+        }
+        final var request =
+                RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(true)
+                        .separateErrorStream(true).experimental(true).entity().list().end().build();
+        final var index = EntityIndex.parse(RuyiCliResultCache.getOutput(request));
+        entityIndex = new CachedEntityIndex(generation, index);
+        return index;
     }
 
     /**
@@ -707,7 +877,11 @@ public class RuyiCli {
         final var atom = String.format("%s(%s)", name, version);
         final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
                 .porcelain(true).install().atom(atom).end().build();
-        request.execute();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
     }
 
     /**
@@ -719,13 +893,54 @@ public class RuyiCli {
      */
     public static void installPackageStreaming(String packageRef, Consumer<String> lineCallback,
             IProgressMonitor monitor) {
-        if (packageRef == null || packageRef.isBlank()) {
-            throw RuyiCliException.invalidArgument("Invalid package reference");
+        installPackagesStreaming(List.of(packageRef == null ? "" : packageRef), lineCallback,
+                monitor);
+    }
+
+    /**
+     * Installs several packages with a single ruyi process, with real-time line output and
+     * cancellation support.
+     *
+     * @param packageRefs package atoms, e.g. name(version)
+     * @param lineCallback called for each output line (may be {@code null})
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     */
+    public static void installPackagesStreaming(List<String> packageRefs,
+            Consumer<String> lineCallback, IProgressMonitor monitor) {
+        final var atoms = requirePackageRefs(packageRefs);
+        final var install =
+                RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
+                        .experimental(true).lineCallback(lineCallback).monitor(monitor).install();
+        for (final var atom : atoms) {
+            install.atom(atom);
         }
-        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
+        final var request = install.end().build();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
+    }
+
+    /**
+     * Downloads packages into ruyi's distfile cache without installing them
+     * ({@code ruyi install -f}). A later install of the same atoms then only extracts. Fetches run
+     * concurrently with each other and with installs, see {@link RuyiCliScheduler}.
+     *
+     * @param packageRefs package atoms, e.g. name(version)
+     * @param lineCallback called for each output line (may be {@code null})
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     */
+    public static void fetchPackagesStreaming(List<String> packageRefs,
+            Consumer<String> lineCallback, IProgressMonitor monitor) {
+        final var atoms = requirePackageRefs(packageRefs);
+        final var install = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
                 .porcelain(false).experimental(true).lineCallback(lineCallback).monitor(monitor)
-                .install().atom(packageRef.trim()).end().build();
-        request.execute();
+                .install().fetchOnly(true);
+        for (final var atom : atoms) {
+            install.atom(atom);
+        }
+        install.end().build().execute();
     }
 
     /**
@@ -738,13 +953,48 @@ public class RuyiCli {
      */
     public static void uninstallPackageStreaming(String packageRef, boolean assumeYes,
             Consumer<String> lineCallback, IProgressMonitor monitor) {
-        if (packageRef == null || packageRef.isBlank()) {
+        uninstallPackagesStreaming(List.of(packageRef == null ? "" : packageRef), assumeYes,
+                lineCallback, monitor);
+    }
+
+    /**
+     * Uninstalls several packages with a single ruyi process, with real-time line output and
+     * cancellation support.
+     *
+     * @param packageRefs package atoms, e.g. name(version)
+     * @param assumeYes whether to pass -y
+     * @param lineCallback called for each output line (may be {@code null})
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     */
+    public static void uninstallPackagesStreaming(List<String> packageRefs, boolean assumeYes,
+            Consumer<String> lineCallback, IProgressMonitor monitor) {
+        final var atoms = requirePackageRefs(packageRefs);
+        final var uninstall =
+                RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult()).porcelain(false)
+                        .experimental(true).lineCallback(lineCallback).monitor(monitor).uninstall();
+        for (final var atom : atoms) {
+            uninstall.atom(atom);
+        }
+        final var request = uninstall.assumeYes(assumeYes).end().build();
+        try {
+            request.execute();
+        } finally {
+            RuyiCliResultCache.invalidate();
+        }
+    }
+
+    private static List<String> requirePackageRefs(List<String> packageRefs) {
+        if (packageRefs == null || packageRefs.isEmpty()) {
             throw RuyiCliException.invalidArgument("Invalid package reference");
         }
-        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(false).experimental(true).lineCallback(lineCallback).monitor(monitor)
-                .uninstall().atom(packageRef.trim()).assumeYes(assumeYes).end().build();
-        request.execute();
+        final var out = new ArrayList<String>(packageRefs.size());
+        for (final var packageRef : packageRefs) {
+            if (packageRef == null || packageRef.isBlank()) {
+                throw RuyiCliException.invalidArgument("Invalid package reference");
+            }
+            out.add(packageRef.trim());
+        }
+        return out;
     }
 
     /**
@@ -796,13 +1046,20 @@ public class RuyiCli {
         request.execute();
     }
 
-    // Package list helpers: call porcelain `list` and parse its JSON-ish output.
+    // Package list helpers: views over the parsed full `list` output.
     /** Lists available toolchains as reported by the ruyi CLI. */
     public static List<ToolchainInfo> listToolchains() {
-        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).list().toolchains().end().build();
-        final var result = request.execute();
-        return parseToolchainsFromString(result.getOutput());
+        return listToolchains(null);
+    }
+
+    /**
+     * Lists available toolchains as reported by the ruyi CLI.
+     *
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     * @return toolchain entries
+     */
+    public static List<ToolchainInfo> listToolchains(IProgressMonitor monitor) {
+        return getPackageCatalog(monitor).getToolchains();
     }
 
     /**
@@ -817,10 +1074,17 @@ public class RuyiCli {
 
     /** Lists available emulators as reported by the ruyi CLI. */
     public static List<EmulatorInfo> listEmulators() {
-        final var request = RuyiCliRequest.builder().ruyiInstallDir(requireInstallPathResult())
-                .porcelain(true).list().emulators().end().build();
-        final var result = request.execute();
-        return parseEmulatorsFromString(result.getOutput());
+        return listEmulators(null);
+    }
+
+    /**
+     * Lists available emulators as reported by the ruyi CLI.
+     *
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     * @return emulator entries
+     */
+    public static List<EmulatorInfo> listEmulators(IProgressMonitor monitor) {
+        return getPackageCatalog(monitor).getEmulators();
     }
 
     /**
@@ -0,0 +1,50 @@
+package org.ruyisdk.ruyi.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link RuyiCli}.
+ *
+ * <p>
+ * {@link #supply} starts a blocking {@link RuyiCli} call on a virtual thread and returns
+ * immediately. Independent calls therefore fan out concurrently; how many ruyi processes actually
+ * run at once is still decided by {@link RuyiCliScheduler}, and result caching and request
+ * coalescing apply as for blocking calls. Futures complete exceptionally with the
+ * {@link RuyiCliException} thrown by the underlying call.
+ */
+public final class RuyiCliAsync {
+
+    private static final ExecutorService EXECUTOR = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("ruyi-cli-async-", 0).factory());
+
+    private RuyiCliAsync() {}
+
+    /**
+     * Runs a blocking ruyi call asynchronously.
+     *
+     * @param call the blocking call, typically a {@link RuyiCli} method reference
+     * @param <T> result type
+     * @return future result
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, EXECUTOR);
+    }
+
+    /**
+     * Returns the failure a future was completed with, without the {@link CompletionException}
+     * wrapper added by dependent stages.
+     *
+     * @param failure failure passed to a completion handler
+     * @return the underlying failure
+     */
+    public static Throwable unwrap(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            return failure.getCause();
+        }
+        return failure;
+    }
+}
@@ -2,16 +2,19 @@ package org.ruyisdk.ruyi.services;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.ruyisdk.core.util.PluginLogger;
@@ -24,15 +27,32 @@ import org.ruyisdk.ruyi.Activator;
  * All process lifecycle management is handled internally. No {@link Process} objects are exposed to
  * callers. Higher-level request assembly is handled elsewhere; this class only launches and manages
  * the process.
+ *
+ * <p>
+ * Every call starts a fresh ruyi process. The ruyi CLI has no long-running server or
+ * request/response mode that a persistent worker could talk to, so start-up cost is reduced by
+ * avoiding redundant invocations instead (see {@link RuyiCliVersionSupport}).
  */
 public final class RuyiCliExecutor {
 
     private static final PluginLogger LOGGER = Activator.getLogger();
-    private static final long WAIT_SLICE_MILLIS = 100L;
-    private static final long OUTPUT_JOIN_TIMEOUT_MILLIS = 500L;
+    private static final long CANCEL_POLL_MILLIS = 100L;
+    private static final long DESTROY_GRACE_MILLIS = 100L;
     private static final String[] LOCALE_ENV_KEYS = {"LANGUAGE", "LC_ALL", "LC_MESSAGES", "LANG"};
     private static final String DEFAULT_LOCALE = "en_US.UTF-8";
 
+    /** Runs the blocking output readers, one virtual thread per stream. */
+    private static final ExecutorService READERS = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("ruyi-cli-reader-", 0).factory());
+
+    /** Fires timeouts, samples monitor cancellation and escalates process termination. */
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final var thread = new Thread(runnable, "ruyi-cli-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private RuyiCliExecutor() {}
 
     /**
@@ -51,9 +71,85 @@ public final class RuyiCliExecutor {
     public static RuyiExecResult execute(String ruyiInstallDir, Map<String, String> environment,
             File workingDirectory, Consumer<String> lineCallback, IProgressMonitor monitor,
             int timeoutSeconds, String... args) {
+        return execute(ruyiInstallDir, environment, workingDirectory, lineCallback, monitor,
+                timeoutSeconds, OutputOptions.MERGED, args);
+    }
+
+    /**
+     * Executes a ruyi command like
+     * {@link #execute(String, Map, File, Consumer, IProgressMonitor, int, String...)}, with control
+     * over how stdout and stderr are captured.
+     *
+     * @param ruyiInstallDir ruyi installation directory
+     * @param environment extra environment entries (may be {@code null})
+     * @param workingDirectory working directory for the process (may be {@code null})
+     * @param lineCallback called for each stdout line, and each stderr line unless stderr is
+     *        captured separately (may be {@code null})
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     * @param timeoutSeconds maximum seconds to wait, 0 for unlimited
+     * @param outputOptions output capture settings
+     * @param args ruyi arguments
+     * @return command result with exit code and captured output
+     */
+    public static RuyiExecResult execute(String ruyiInstallDir, Map<String, String> environment,
+            File workingDirectory, Consumer<String> lineCallback, IProgressMonitor monitor,
+            int timeoutSeconds, OutputOptions outputOptions, String... args) {
+        final var future = executeAsync(ruyiInstallDir, environment, workingDirectory, lineCallback,
+                monitor, timeoutSeconds, outputOptions, args);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw RuyiCliException.cancelled();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuyiCliException cause) {
+                throw cause;
+            }
+            throw RuyiCliException.executionError(e);
+        }
+    }
+
+    /**
+     * Starts a ruyi command and returns without waiting for it.
+     *
+     * <p>
+     * The future completes when the process has exited and its output has been read, or
+     * exceptionally with a {@link RuyiCliException} on timeout, cancellation through
+     * {@code monitor} or I/O failure. Cancelling the future terminates the process. Line callbacks
+     * run on reader threads owned by this class.
+     *
+     * @param ruyiInstallDir ruyi installation directory
+     * @param environment extra environment entries (may be {@code null})
+     * @param workingDirectory working directory for the process (may be {@code null})
+     * @param lineCallback called for each stdout line, and each stderr line unless stderr is
+     *        captured separately (may be {@code null})
+     * @param monitor progress monitor for cancellation (may be {@code null})
+     * @param timeoutSeconds maximum seconds to wait, 0 for unlimited
+     * @param outputOptions output capture settings
+     * @param args ruyi arguments
+     * @return future command result
+     */
+    public static CompletableFuture<RuyiExecResult> executeAsync(String ruyiInstallDir,
+            Map<String, String> environment, File workingDirectory, Consumer<String> lineCallback,
+            IProgressMonitor monitor, int timeoutSeconds, OutputOptions outputOptions,
+            String... args) {
         final var command = buildCommand(ruyiInstallDir, args);
-        return executeCommand(command, environment, workingDirectory, true, lineCallback, monitor,
-                timeoutSeconds);
+        return executeCommand(command, environment, workingDirectory, outputOptions, lineCallback,
+                monitor, timeoutSeconds);
+    }
+
+    /**
+     * Output capture settings.
+     *
+     * @param separateErrorStream whether to capture stderr separately instead of merging it into
+     *        stdout
+     * @param tailLines number of trailing lines to keep per stream, 0 to keep all output
+     */
+    public record OutputOptions(boolean separateErrorStream, int tailLines) {
+
+        /** Merges stderr into stdout and keeps all output. */
+        public static final OutputOptions MERGED = new OutputOptions(false, 0);
     }
 
     private static List<String> buildCommand(String ruyiInstallDir, String... args) {
@@ -110,131 +206,110 @@ public final class RuyiCliExecutor {
         processEnvironment.put("PYTHONIOENCODING", "utf-8");
     }
 
-    private static RuyiExecResult executeCommand(List<String> command,
-            Map<String, String> environment, File workingDirectory, boolean redirectErrorStream,
+    private static CompletableFuture<RuyiExecResult> executeCommand(List<String> command,
+            Map<String, String> environment, File workingDirectory, OutputOptions outputOptions,
             Consumer<String> lineCallback, IProgressMonitor monitor, int timeoutSeconds) {
         LOGGER.logInfo(String.format("[RuyiCliExecutor] Executing ruyi command: [%s]",
                 String.join("] [", command)));
-        final var process =
-                startProcess(command, environment, workingDirectory, redirectErrorStream);
-        final var outputFuture = CompletableFuture.supplyAsync(() -> {
-            return readLines(process, lineCallback, monitor);
-        });
-        final long deadlineNanos =
-                timeoutSeconds > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds)
-                        : Long.MAX_VALUE;
-        try {
-            waitForProcess(process, monitor, deadlineNanos, timeoutSeconds);
-            final var output = awaitOutput(outputFuture, deadlineNanos, timeoutSeconds);
-            final var exitCode = process.exitValue();
-            LOGGER.logInfo("[RuyiCliExecutor] ruyi command exited with code: " + exitCode);
-            return new RuyiExecResult(exitCode, output);
-        } finally {
-            cleanupProcess(process, outputFuture);
-        }
-    }
-
-    private static void cleanupProcess(Process process, CompletableFuture<String> outputFuture) {
-        outputFuture.cancel(true);
-
+        final var separateErrorStream = outputOptions.separateErrorStream();
+        final Process process;
         try {
-            process.getInputStream().close();
-            process.getErrorStream().close();
-            process.getOutputStream().close();
-        } catch (IOException e) {
-            // ignore
+            process = startProcess(command, environment, workingDirectory, !separateErrorStream);
+        } catch (RuyiCliException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        final var outputFuture = CompletableFuture.supplyAsync(() -> {
+            return readLines(process.getInputStream(), lineCallback, monitor,
+                    outputOptions.tailLines());
+        }, READERS);
+        final var errorFuture = separateErrorStream ? CompletableFuture.supplyAsync(() -> {
+            return readLines(process.getErrorStream(), null, monitor, outputOptions.tailLines());
+        }, READERS) : CompletableFuture.completedFuture("");
 
-        try {
-            process.destroy();
-            if (!process.waitFor(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS) && process.isAlive()) {
-                process.destroyForcibly();
-                process.waitFor();
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            // ignore
-        }
+        final var result = new CompletableFuture<RuyiExecResult>();
+        process.onExit().thenCombine(outputFuture, (exited, output) -> output)
+                .thenCombine(errorFuture,
+                        (output, errorOutput) -> new RuyiExecResult(process.exitValue(), output,
+                                errorOutput))
+                .whenComplete((execResult, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(unwrap(failure));
+                        return;
+                    }
+                    LOGGER.logInfo("[RuyiCliExecutor] ruyi command exited with code: "
+                            + execResult.getExitCode());
+                    result.complete(execResult);
+                });
 
-        try {
-            outputFuture.get(OUTPUT_JOIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException
-                | CancellationException e) {
-            // why not "throws CancellationException" but documents it???
-            // ignore
+        final var watchers = new ArrayList<ScheduledFuture<?>>();
+        if (timeoutSeconds > 0) {
+            watchers.add(TIMER.schedule(() -> {
+                if (result.completeExceptionally(RuyiCliException.timeout(timeoutSeconds))) {
+                    LOGGER.logWarning(String.format(
+                            "[RuyiCliExecutor] ruyi command timed out after %d s", timeoutSeconds));
+                }
+            }, timeoutSeconds, TimeUnit.SECONDS));
         }
-    }
-
-    private static void waitForProcess(Process process, IProgressMonitor monitor,
-            long deadlineNanos, int timeoutSeconds) {
-        while (true) {
-            if (monitor != null && monitor.isCanceled()) {
-                throw RuyiCliException.cancelled();
-            }
-            try {
-                if (process.waitFor(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
-                    return;
+        if (monitor != null) {
+            // IProgressMonitor has no listener API, so cancellation is sampled on the shared timer
+            // thread; completion itself is not delayed by this.
+            watchers.add(TIMER.scheduleWithFixedDelay(() -> {
+                if (monitor.isCanceled()) {
+                    result.completeExceptionally(RuyiCliException.cancelled());
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw RuyiCliException.cancelled();
-            }
-            if (timeoutSeconds > 0 && System.nanoTime() >= deadlineNanos) {
-                throw RuyiCliException.timeout(timeoutSeconds);
-            }
+            }, CANCEL_POLL_MILLIS, CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS));
         }
+        result.whenComplete((execResult, failure) -> {
+            for (final var watcher : watchers) {
+                watcher.cancel(false);
+            }
+            cleanupProcess(process, outputFuture, errorFuture);
+        });
+        return result;
     }
 
-    private static String awaitOutput(CompletableFuture<String> outputFuture, long deadlineNanos,
-            int timeoutSeconds) {
-        try {
-            if (timeoutSeconds <= 0) {
-                return outputFuture.get();
-            }
-            final long remainingNanos = deadlineNanos - System.nanoTime();
-            if (remainingNanos <= 0) {
-                throw RuyiCliException.timeout(timeoutSeconds);
-            }
-            return outputFuture.get(remainingNanos, TimeUnit.NANOSECONDS);
-        } catch (TimeoutException e) {
-            LOGGER.logWarning(String.format("[RuyiCliExecutor] ruyi command timed out after %d s",
-                    timeoutSeconds));
-            throw RuyiCliException.timeout(timeoutSeconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw RuyiCliException.cancelled();
-        } catch (ExecutionException e) {
-            throw RuyiCliException.executionError(e);
+    private static Throwable unwrap(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            return failure.getCause();
         }
+        return failure;
     }
 
     /**
-     * Reads process output line-by-line using {@link Process#inputReader()}. Supports optional
-     * per-line callback and cancellation via monitor.
+     * Releases the process without blocking: it is asked to terminate and killed after a short
+     * grace period if still alive.
      */
-    private static String readLines(Process process, Consumer<String> lineCallback,
-            IProgressMonitor monitor) {
-        final var output = new StringBuilder();
-        try (var reader = process.inputReader(StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (monitor != null && monitor.isCanceled()) {
-                    throw RuyiCliException.cancelled();
-                }
-                output.append(line).append(System.lineSeparator());
+    private static void cleanupProcess(Process process, CompletableFuture<String> outputFuture,
+            CompletableFuture<String> errorFuture) {
+        outputFuture.cancel(true);
+        errorFuture.cancel(true);
 
-                if (lineCallback != null) {
-                    lineCallback.accept(line);
+        if (process.isAlive()) {
+            process.destroy();
+            TIMER.schedule(() -> {
+                if (process.isAlive()) {
+                    process.destroyForcibly();
                 }
-            }
-            if (monitor != null && monitor.isCanceled()) {
-                throw RuyiCliException.cancelled();
-            }
+            }, DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        }
 
-            LOGGER.logInfo("[RuyiCliExecutor] Finished reading output");
-            return output.toString();
+        try {
+            process.getInputStream().close();
+            process.getErrorStream().close();
+            process.getOutputStream().close();
         } catch (IOException e) {
-            throw RuyiCliException.ioError(e);
+            // ignore
         }
     }
+
+    /**
+     * Reads one process output stream line-by-line through {@link ProcessOutputReader}. Supports
+     * optional per-line callback, a bounded tail and cancellation via monitor.
+     */
+    private static String readLines(InputStream in, Consumer<String> lineCallback,
+            IProgressMonitor monitor, int tailLines) {
+        final var output = new ProcessOutputReader(lineCallback, monitor, tailLines).read(in);
+        LOGGER.logInfo("[RuyiCliExecutor] Finished reading output");
+        return output;
+    }
 }
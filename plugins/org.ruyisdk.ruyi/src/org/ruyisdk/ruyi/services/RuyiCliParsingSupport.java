@@ -2,6 +2,7 @@ package org.ruyisdk.ruyi.services;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -14,6 +15,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 /**
  * Shared parsing helpers for ruyi CLI output.
@@ -37,18 +39,25 @@ final class RuyiCliParsingSupport {
         }
 
         for (final var o : parseJsonObjects(input)) {
-            if (!isNewsItemObject(o)) {
-                continue;
+            final var item = toNewsListItem(o);
+            if (item != null) {
+                out.add(item);
             }
-            final var id = optStringOrNull(o, "id");
-            final var ord = optIntegerOrNull(o, "ord");
-            final var isRead = optBooleanOrNull(o, "is_read");
-            final var title = chooseNewsDisplayTitle(o.optJSONArray("langs"));
-            out.add(new RuyiCli.NewsListItemInfo(id, ord, isRead, title));
         }
         return out;
     }
 
+    static RuyiCli.NewsListItemInfo toNewsListItem(JSONObject o) {
+        if (!isNewsItemObject(o)) {
+            return null;
+        }
+        final var id = optStringOrNull(o, "id");
+        final var ord = optIntegerOrNull(o, "ord");
+        final var isRead = optBooleanOrNull(o, "is_read");
+        final var title = chooseNewsDisplayTitle(o.optJSONArray("langs"));
+        return new RuyiCli.NewsListItemInfo(id, ord, isRead, title);
+    }
+
     static RuyiCli.NewsReadResult parseNewsReadFromString(String input) {
         if (input == null || input.isBlank()) {
             return null;
@@ -59,7 +68,24 @@ final class RuyiCliParsingSupport {
             return null;
         }
 
-        final var o = objects.get(0);
+        return toNewsReadResult(objects.get(0));
+    }
+
+    static List<RuyiCli.NewsReadResult> parseNewsReadListFromString(String input) {
+        final var out = new ArrayList<RuyiCli.NewsReadResult>();
+        if (input == null || input.isBlank()) {
+            return out;
+        }
+
+        for (final var o : parseJsonObjects(input)) {
+            if (isNewsItemObject(o)) {
+                out.add(toNewsReadResult(o));
+            }
+        }
+        return out;
+    }
+
+    private static RuyiCli.NewsReadResult toNewsReadResult(JSONObject o) {
         final var id = optStringOrNull(o, "id");
         final var ord = optIntegerOrNull(o, "ord");
         final var isRead = optBooleanOrNull(o, "is_read");
@@ -76,26 +102,38 @@ final class RuyiCliParsingSupport {
         }
 
         for (final var o : parseJsonObjects(input)) {
-            if (!isPackageListObject(o)) {
-                continue;
+            final var entry = toPackageListEntry(o);
+            if (entry != null) {
+                out.add(entry);
             }
+        }
 
-            final var category = optStringOrNull(o, "category");
-            final var name = optStringOrNull(o, "name");
-            if (category == null || name == null) {
-                continue;
-            }
+        return out;
+    }
 
-            final var versions = extractPackageVersions(o.optJSONArray("vers"));
-            out.add(new RuyiCli.PackageListEntryInfo(category, name, versions));
+    private static RuyiCli.PackageListEntryInfo toPackageListEntry(JSONObject o) {
+        if (!isPackageListObject(o)) {
+            return null;
         }
 
-        return out;
+        final var category = optStringOrNull(o, "category");
+        final var name = optStringOrNull(o, "name");
+        if (category == null || name == null) {
+            return null;
+        }
+
+        final var versions = extractPackageVersions(o.optJSONArray("vers"));
+        return new RuyiCli.PackageListEntryInfo(category, name, versions);
     }
 
     static List<RuyiCli.PackageTreeCategoryInfo> parsePackageTreeFromString(String input) {
+        return toPackageTree(parsePackageListFromString(input));
+    }
+
+    static List<RuyiCli.PackageTreeCategoryInfo> toPackageTree(
+            List<RuyiCli.PackageListEntryInfo> entries) {
         final var categories = new LinkedHashMap<String, List<RuyiCli.PackageTreePackageInfo>>();
-        for (final var packageEntry : parsePackageListFromString(input)) {
+        for (final var packageEntry : entries) {
             final var packages =
                     categories.computeIfAbsent(packageEntry.getCategory(), k -> new ArrayList<>());
 
@@ -145,8 +183,7 @@ final class RuyiCliParsingSupport {
         final var packages = parsePackageInfos(input, "toolchain", "toolchain", true);
         final var out = new ArrayList<RuyiCli.ToolchainInfo>();
         for (final var info : packages) {
-            out.add(new RuyiCli.ToolchainInfo(info.name, info.versions, info.quirks,
-                    info.hasIncludedSysroot));
+            out.add(toToolchain(info));
         }
         return out;
     }
@@ -155,11 +192,47 @@ final class RuyiCliParsingSupport {
         final var packages = parsePackageInfos(input, "emulator", "emulator", false);
         final var out = new ArrayList<RuyiCli.EmulatorInfo>();
         for (final var info : packages) {
-            out.add(new RuyiCli.EmulatorInfo(info.name, info.versions, info.quirks));
+            out.add(toEmulator(info));
         }
         return out;
     }
 
+    static PackageCatalog parsePackageCatalog(String input) {
+        final var packages = new ArrayList<RuyiCli.PackageListEntryInfo>();
+        final var toolchains = new ArrayList<RuyiCli.ToolchainInfo>();
+        final var emulators = new ArrayList<RuyiCli.EmulatorInfo>();
+        if (input == null || input.isBlank()) {
+            return new PackageCatalog(packages, toolchains, emulators);
+        }
+
+        for (final var o : parseJsonObjects(input)) {
+            final var entry = toPackageListEntry(o);
+            if (entry == null) {
+                continue;
+            }
+            packages.add(entry);
+
+            final var toolchain = toPackageInfo(o, "toolchain", "toolchain", true);
+            if (toolchain != null) {
+                toolchains.add(toToolchain(toolchain));
+            }
+            final var emulator = toPackageInfo(o, "emulator", "emulator", false);
+            if (emulator != null) {
+                emulators.add(toEmulator(emulator));
+            }
+        }
+        return new PackageCatalog(packages, toolchains, emulators);
+    }
+
+    private static RuyiCli.ToolchainInfo toToolchain(PackageInfo info) {
+        return new RuyiCli.ToolchainInfo(info.name, info.versions, info.quirks,
+                info.hasIncludedSysroot);
+    }
+
+    private static RuyiCli.EmulatorInfo toEmulator(PackageInfo info) {
+        return new RuyiCli.EmulatorInfo(info.name, info.versions, info.quirks);
+    }
+
     private static List<RuyiCli.ProfileInfo> parseProfilesFromPlainText(String input) {
         final var out = new ArrayList<RuyiCli.ProfileInfo>();
         if (input == null || input.isBlank()) {
@@ -211,35 +284,39 @@ final class RuyiCliParsingSupport {
         }
 
         for (final var o : parseJsonObjects(input)) {
-            if (o == null) {
-                continue;
-            }
-
-            if (!isPackageListObject(o)) {
-                continue;
+            final var info = toPackageInfo(o, expectedCategory, metadataKey, detectIncludedSysroot);
+            if (info != null) {
+                out.add(info);
             }
+        }
+        return out;
+    }
 
-            final var category = o.optString("category", "");
-            if (!expectedCategory.equalsIgnoreCase(category)) {
-                continue;
-            }
+    private static PackageInfo toPackageInfo(JSONObject o, String expectedCategory,
+            String metadataKey, boolean detectIncludedSysroot) {
+        if (o == null || !isPackageListObject(o)) {
+            return null;
+        }
 
-            final var name = o.optString("name", "").trim();
-            if (name == null || name.isBlank()) {
-                continue;
-            }
+        final var category = o.optString("category", "");
+        if (!expectedCategory.equalsIgnoreCase(category)) {
+            return null;
+        }
 
-            final var versions = extractVersions(o.optJSONArray("vers"));
-            if (versions.isEmpty()) {
-                continue;
-            }
+        final var name = o.optString("name", "").trim();
+        if (name == null || name.isBlank()) {
+            return null;
+        }
 
-            final var quirks = extractPackageQuirks(o.optJSONArray("vers"), metadataKey);
-            final var hasIncludedSysroot = detectIncludedSysroot
-                    && extractPackageHasIncludedSysroot(o.optJSONArray("vers"), metadataKey);
-            out.add(new PackageInfo(name.trim(), versions, quirks, hasIncludedSysroot));
+        final var versions = extractVersions(o.optJSONArray("vers"));
+        if (versions.isEmpty()) {
+            return null;
         }
-        return out;
+
+        final var quirks = extractPackageQuirks(o.optJSONArray("vers"), metadataKey);
+        final var hasIncludedSysroot = detectIncludedSysroot
+                && extractPackageHasIncludedSysroot(o.optJSONArray("vers"), metadataKey);
+        return new PackageInfo(name.trim(), versions, quirks, hasIncludedSysroot);
     }
 
     private static List<RuyiCli.PackageVersionInfo> extractPackageVersions(
@@ -485,9 +562,13 @@ final class RuyiCliParsingSupport {
 
     private static List<JSONObject> parseJsonObjects(String input) {
         final var out = new ArrayList<JSONObject>();
-        for (final var json : extractJsonObjects(input)) {
+        if (input == null || input.isBlank()) {
+            return out;
+        }
+        for (final var span : extractJsonObjects(input)) {
             try {
-                out.add(new JSONObject(json));
+                out.add(new JSONObject(
+                        new JSONTokener(new CharSequenceReader(input, span.start(), span.end()))));
             } catch (RuntimeException e) {
                 // Skip malformed/truncated objects.
             }
@@ -495,35 +576,87 @@ final class RuyiCliParsingSupport {
         return out;
     }
 
-    private static List<String> extractJsonObjects(String input) {
-        final var out = new ArrayList<String>();
-        if (input == null || input.isBlank()) {
-            return out;
-        }
-
-        int depth = 0;
+    /**
+     * Finds the top-level JSON objects in {@code input} in a single pass. Braces inside string
+     * literals do not count, and text between objects is skipped.
+     */
+    static List<JsonSpan> extractJsonObjects(CharSequence input) {
+        final var out = new ArrayList<JsonSpan>();
+        final var scanner = new JsonObjectScanner();
         int start = -1;
-        for (int i = 0; i < input.length(); i++) {
-            final var c = input.charAt(i);
-            if (c == '{') {
-                if (depth == 0) {
-                    start = i;
-                }
-                depth++;
-            } else if (c == '}') {
-                if (depth == 0) {
-                    continue;
-                }
-                depth--;
-                if (depth == 0 && start >= 0) {
-                    out.add(input.substring(start, i + 1));
-                    start = -1;
-                }
+        for (int i = 0, n = input.length(); i < n; i++) {
+            final var event = scanner.feed(input.charAt(i));
+            if (event == JsonObjectScanner.Event.START) {
+                start = i;
+            } else if (event == JsonObjectScanner.Event.END) {
+                out.add(new JsonSpan(start, i + 1));
             }
         }
         return out;
     }
 
+    /** Offsets of one JSON object in the scanned buffer; {@code end} is exclusive. */
+    record JsonSpan(int start, int end) {
+    }
+
+    /**
+     * Reader over a region of a {@link CharSequence} that does not copy it. It supports marking so
+     * that {@link JSONTokener} uses it directly instead of wrapping it in a buffered reader.
+     */
+    private static final class CharSequenceReader extends Reader {
+        private final CharSequence input;
+        private final int end;
+        private int pos;
+        private int mark;
+
+        CharSequenceReader(CharSequence input, int start, int end) {
+            this.input = input;
+            this.end = end;
+            this.pos = start;
+            this.mark = start;
+        }
+
+        @Override
+        public int read() {
+            return pos < end ? input.charAt(pos++) : -1;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (pos >= end) {
+                return -1;
+            }
+            final var count = Math.min(len, end - pos);
+            for (int i = 0; i < count; i++) {
+                cbuf[off + i] = input.charAt(pos++);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readAheadLimit) {
+            mark = pos;
+        }
+
+        @Override
+        public void reset() {
+            pos = mark;
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
     private static String optStringOrNull(JSONObject o, String key) {
         if (!o.has(key)) {
             return null;
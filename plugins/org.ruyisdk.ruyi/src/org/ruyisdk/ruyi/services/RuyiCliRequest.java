@@ -7,7 +7,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
@@ -19,6 +21,12 @@ import org.eclipse.core.runtime.IProgressMonitor;
  */
 public class RuyiCliRequest {
 
+    /** Subcommands that never modify ruyi state, regardless of their arguments. */
+    private static final Set<String> READ_ONLY_COMMANDS = Set.of("list", "entity");
+
+    /** Lines of output kept for error reporting when lines are delivered to a callback. */
+    private static final int DEFAULT_CALLBACK_TAIL_LINES = 200;
+
     private final String ruyiInstallDir;
     private final boolean porcelain;
     private final String command;
@@ -28,6 +36,8 @@ public class RuyiCliRequest {
     private final Consumer<String> lineCallback;
     private final IProgressMonitor monitor;
     private final int timeoutSeconds;
+    private final boolean separateErrorStream;
+    private final int outputTailLines;
 
     private RuyiCliRequest(Builder builder) {
         this.ruyiInstallDir = builder.ruyiInstallDir;
@@ -39,6 +49,12 @@ public class RuyiCliRequest {
         this.lineCallback = builder.lineCallback;
         this.monitor = builder.monitor;
         this.timeoutSeconds = builder.timeoutSeconds;
+        this.separateErrorStream = builder.separateErrorStream;
+        if (builder.outputTailLines != null) {
+            this.outputTailLines = builder.outputTailLines;
+        } else {
+            this.outputTailLines = lineCallback != null ? DEFAULT_CALLBACK_TAIL_LINES : 0;
+        }
     }
 
     /** Creates a new {@link Builder} for constructing a request. */
@@ -60,15 +76,72 @@ public class RuyiCliRequest {
 
         final var cmdArgs = buildCommandArgs();
         final var cmdString = buildCommandString(cmdArgs);
-        final var result = RuyiCliExecutor.execute(ruyiInstallDir, environment, workingDirectory,
-                lineCallback, monitor, timeoutSeconds, cmdArgs.toArray(new String[0]));
+        final RuyiExecResult result;
+        if (isReadOnly() && lineCallback == null) {
+            // Identical concurrent queries share one process and its output.
+            result = RuyiCliSingleFlight.execute(getKey(), monitor,
+                    sharedMonitor -> launch(cmdArgs, sharedMonitor));
+        } else {
+            result = launch(cmdArgs, monitor);
+        }
         if (result.getExitCode() != 0) {
             throw RuyiCliException.executionFailed(cmdString, result.getExitCode(),
-                    result.getOutput());
+                    result.getOutput() + result.getErrorOutput());
         }
         return result;
     }
 
+    /** Returns the identity of this invocation, used to share and cache its output. */
+    RuyiCliSingleFlight.Key getKey() {
+        return new RuyiCliSingleFlight.Key(ruyiInstallDir, buildCommandArgs(),
+                environment == null ? Map.of() : environment, workingDirectory,
+                separateErrorStream);
+    }
+
+    private RuyiExecResult launch(List<String> cmdArgs, IProgressMonitor processMonitor) {
+        final Supplier<RuyiExecResult> task = () -> RuyiCliExecutor.execute(ruyiInstallDir,
+                environment, workingDirectory, lineCallback, processMonitor, timeoutSeconds,
+                new RuyiCliExecutor.OutputOptions(separateErrorStream, outputTailLines),
+                cmdArgs.toArray(new String[0]));
+        if (isFetchOnly()) {
+            return RuyiCliScheduler.runFetch(processMonitor, task);
+        }
+        return RuyiCliScheduler.run(isReadOnly(), processMonitor, task);
+    }
+
+    /**
+     * Returns whether this request is an install that only downloads packages
+     * ({@code ruyi install -f}).
+     *
+     * @return true for fetch-only installs
+     */
+    public boolean isFetchOnly() {
+        return "install".equals(command) && args.contains("-f");
+    }
+
+    /**
+     * Returns whether this request only reads ruyi state and may therefore run concurrently with
+     * other read-only requests.
+     *
+     * @return true for listing, entity, news list and lookup commands
+     */
+    public boolean isReadOnly() {
+        if (command == null || command.isBlank()) {
+            return false;
+        }
+        if (READ_ONLY_COMMANDS.contains(command)) {
+            return true;
+        }
+        final var subcommand = args.isEmpty() ? null : args.get(0);
+        return switch (command) {
+            case "config" -> "get".equals(subcommand);
+            // news read updates ruyi's read status
+            case "news" -> "list".equals(subcommand);
+            case "telemetry" -> "status".equals(subcommand);
+            default -> false;
+        };
+    }
+
     private List<String> buildCommandArgs() {
         final var cmdArgs = new ArrayList<String>();
         if (porcelain) {
@@ -82,7 +155,8 @@ public class RuyiCliRequest {
     }
 
     private void ensureSupportedVersion() {
-        final var installedVersion = RuyiCliVersionSupport.getInstalledVersion(ruyiInstallDir);
+        final var installedVersion =
+                RuyiCliVersionSupport.getCachedInstalledVersion(ruyiInstallDir);
         if (RuyiCliVersionSupport.isSupportedVersion(installedVersion)) {
             return;
         }
@@ -124,6 +198,8 @@ public class RuyiCliRequest {
         private Consumer<String> lineCallback;
         private IProgressMonitor monitor;
         private int timeoutSeconds;
+        private boolean separateErrorStream;
+        private Integer outputTailLines;
 
         private Builder() {}
 
@@ -180,6 +256,26 @@ public class RuyiCliRequest {
             return this;
         }
 
+        /**
+         * Captures stderr separately from stdout. The line callback and the result output then only
+         * see stdout; stderr is available from {@link RuyiExecResult#getErrorOutput()}. Porcelain
+         * queries whose output is parsed as JSON use this, so ruyi's log and warning lines on
+         * stderr cannot interleave with the objects on stdout.
+         */
+        public Builder separateErrorStream(boolean value) {
+            this.separateErrorStream = value;
+            return this;
+        }
+
+        /**
+         * Sets how many trailing lines of each output stream the result keeps; 0 keeps all output.
+         * Defaults to a short tail when a line callback is set, otherwise to all output.
+         */
+        public Builder outputTailLines(int value) {
+            this.outputTailLines = Math.max(0, value);
+            return this;
+        }
+
         /** Sets the progress monitor for cancellation support. */
         public Builder monitor(IProgressMonitor value) {
             this.monitor = value;
@@ -352,9 +448,20 @@ public class RuyiCliRequest {
          * @return this builder
          */
         public NewsCommandBuilder read(String idOrOrdinal) {
+            return read(Collections.singletonList(idOrOrdinal));
+        }
+
+        /**
+         * Reads several news items by ID or ordinal in one invocation. In porcelain mode ruyi
+         * prints one object per item.
+         *
+         * @param idsOrOrdinals news item IDs or ordinals
+         * @return this builder
+         */
+        public NewsCommandBuilder read(List<String> idsOrOrdinals) {
             this.subcommand = "read";
             subArgs.add("--quiet");
-            subArgs.add(idOrOrdinal);
+            subArgs.addAll(idsOrOrdinals);
             return this;
         }
 
@@ -930,6 +1037,16 @@ public class RuyiCliRequest {
             parent.command("entity");
         }
 
+        /**
+         * Lists entities of all types.
+         *
+         * @return this builder
+         */
+        public EntityCommandBuilder list() {
+            this.subcommand = "list";
+            return this;
+        }
+
         /**
          * Lists entities.
          *
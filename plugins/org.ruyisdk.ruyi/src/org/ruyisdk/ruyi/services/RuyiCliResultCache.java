@@ -0,0 +1,148 @@
+package org.ruyisdk.ruyi.services;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.ruyisdk.core.basedir.XdgDirs;
+import org.ruyisdk.core.util.PluginLogger;
+import org.ruyisdk.ruyi.Activator;
+
+/**
+ * Caches the output of read-only ruyi queries until the package index or installed state may have
+ * changed.
+ *
+ * <p>
+ * Entries are stamped with a generation counter. Mutating {@link RuyiCli} operations (update,
+ * install, uninstall, repo configuration) and changes to ruyi's local package index checkout bump
+ * the generation, which makes every earlier entry stale. A query that raced with a bump stores its
+ * output under the old generation, so it is never served afterwards.
+ */
+public final class RuyiCliResultCache {
+
+    private static final PluginLogger LOGGER = Activator.getLogger();
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+    private static final Map<RuyiCliSingleFlight.Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private static WatchService watchService;
+
+    private RuyiCliResultCache() {}
+
+    private record Entry(long generation, String output) {
+    }
+
+    /**
+     * Returns the output of {@code request}, executing it only if no output is cached for the
+     * current generation.
+     *
+     * @param request a read-only request
+     * @return raw command output
+     */
+    public static String getOutput(RuyiCliRequest request) {
+        if (!request.isReadOnly()) {
+            return request.execute().getOutput();
+        }
+        ensureWatching();
+
+        final var key = request.getKey();
+        final var generation = GENERATION.get();
+        final var cached = ENTRIES.get(key);
+        if (cached != null && cached.generation() == generation) {
+            return cached.output();
+        }
+
+        final var output = request.execute().getOutput();
+        ENTRIES.put(key, new Entry(generation, output));
+        return output;
+    }
+
+    /** Discards all cached outputs, e.g. after an operation that changed ruyi state. */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+        ENTRIES.clear();
+    }
+
+    /**
+     * Returns the current cache generation. It increases on every invalidation.
+     *
+     * @return generation counter
+     */
+    public static long getGeneration() {
+        return GENERATION.get();
+    }
+
+    /** Stops watching the package index checkout and drops all entries. */
+    public static synchronized void dispose() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            watchService = null;
+        }
+        invalidate();
+    }
+
+    /**
+     * Returns ruyi's default package index checkout. A {@code repo.local} override is not followed;
+     * changing it through {@link RuyiCli#setRepoLocal(String)} invalidates the cache anyway.
+     */
+    static Path getRepoCheckoutDir() {
+        return XdgDirs.getCacheDir("ruyi").resolve("packages-index");
+    }
+
+    private static synchronized void ensureWatching() {
+        if (watchService != null) {
+            return;
+        }
+        final var repoDir = getRepoCheckoutDir();
+        if (!Files.isDirectory(repoDir)) {
+            // Not synced yet; try again on the next query.
+            return;
+        }
+        final WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            register(service, repoDir);
+            register(service, repoDir.resolve(".git"));
+        } catch (IOException e) {
+            LOGGER.logWarning("[RuyiCliResultCache] Failed to watch package index: " + repoDir, e);
+            return;
+        }
+        watchService = service;
+
+        final var thread = new Thread(() -> watch(service), "ruyi-package-index-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void register(WatchService service, Path dir) throws IOException {
+        if (Files.isDirectory(dir)) {
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    private static void watch(WatchService service) {
+        try {
+            while (true) {
+                final var key = service.take();
+                key.pollEvents();
+                invalidate();
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // disposed
+        }
+    }
+}
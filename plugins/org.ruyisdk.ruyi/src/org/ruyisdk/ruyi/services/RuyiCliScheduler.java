@@ -0,0 +1,158 @@
+package org.ruyisdk.ruyi.services;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Admission control for ruyi processes.
+ *
+ * <p>
+ * Read-only commands (listing, entity queries, news, config lookups) may run concurrently up to
+ * {@link #MAX_CONCURRENT_READERS}. Mutating commands (install, uninstall, update, venv creation,
+ * config changes) run exclusively, so they never race with readers on the ruyi repo and cache
+ * files. The lock is fair: a waiting mutating command is not starved by a stream of readers.
+ *
+ * <p>
+ * Fetch-only installs ({@code ruyi install -f}) only read the package repo and add files to the
+ * download cache; they never change installed packages or config. They are admitted outside the
+ * read/write lock, up to {@link #MAX_CONCURRENT_FETCHES} at a time, so downloads can overlap with a
+ * running install. That is safe because ruyi checks the size and checksum of a cached file before
+ * extracting it and downloads it again on mismatch, so an install never uses a file a concurrent
+ * fetch has only half written. A fetch racing a repo update may fail or fetch a stale version;
+ * callers therefore treat fetches as best effort and let the install, which holds the write lock,
+ * download whatever is still missing.
+ */
+public final class RuyiCliScheduler {
+
+    /** Maximum number of read-only ruyi processes running at the same time. */
+    public static final int MAX_CONCURRENT_READERS = 4;
+
+    /** Maximum number of fetch-only ruyi processes running at the same time. */
+    public static final int MAX_CONCURRENT_FETCHES = 4;
+
+    private static final long WAIT_SLICE_MILLIS = 100L;
+
+    private static final ReentrantReadWriteLock RW_LOCK = new ReentrantReadWriteLock(true);
+    private static final Semaphore READER_PERMITS = new Semaphore(MAX_CONCURRENT_READERS, true);
+    private static final Semaphore FETCH_PERMITS = new Semaphore(MAX_CONCURRENT_FETCHES, true);
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+
+    private RuyiCliScheduler() {}
+
+    /**
+     * Runs {@code task} once the ruyi process it launches is admitted.
+     *
+     * @param readOnly whether the task only reads ruyi state
+     * @param monitor progress monitor checked for cancellation while waiting (may be {@code null})
+     * @param task the work that launches the ruyi process
+     * @param <T> result type
+     * @return the task result
+     * @throws RuyiCliException if cancelled while waiting
+     */
+    public static <T> T run(boolean readOnly, IProgressMonitor monitor, Supplier<T> task) {
+        final Lock lock = readOnly ? RW_LOCK.readLock() : RW_LOCK.writeLock();
+        QUEUED.incrementAndGet();
+        try {
+            acquire(lock, monitor);
+            if (readOnly) {
+                try {
+                    acquire(READER_PERMITS, monitor);
+                } catch (RuntimeException e) {
+                    lock.unlock();
+                    throw e;
+                }
+            }
+        } finally {
+            QUEUED.decrementAndGet();
+        }
+
+        RUNNING.incrementAndGet();
+        try {
+            return task.get();
+        } finally {
+            RUNNING.decrementAndGet();
+            if (readOnly) {
+                READER_PERMITS.release();
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a fetch-only {@code task} once one of the fetch slots is free.
+     *
+     * @param monitor progress monitor checked for cancellation while waiting (may be {@code null})
+     * @param task the work that launches the ruyi process
+     * @param <T> result type
+     * @return the task result
+     * @throws RuyiCliException if cancelled while waiting
+     */
+    public static <T> T runFetch(IProgressMonitor monitor, Supplier<T> task) {
+        QUEUED.incrementAndGet();
+        try {
+            acquire(FETCH_PERMITS, monitor);
+        } finally {
+            QUEUED.decrementAndGet();
+        }
+
+        RUNNING.incrementAndGet();
+        try {
+            return task.get();
+        } finally {
+            RUNNING.decrementAndGet();
+            FETCH_PERMITS.release();
+        }
+    }
+
+    /**
+     * Returns the number of ruyi commands currently waiting for admission.
+     *
+     * @return queue depth
+     */
+    public static int getQueueDepth() {
+        return QUEUED.get();
+    }
+
+    /**
+     * Returns the number of admitted ruyi commands that are currently running.
+     *
+     * @return running command count
+     */
+    public static int getRunningCount() {
+        return RUNNING.get();
+    }
+
+    private static void acquire(Lock lock, IProgressMonitor monitor) {
+        try {
+            while (!lock.tryLock(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkCancelled(monitor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw RuyiCliException.cancelled();
+        }
+    }
+
+    private static void acquire(Semaphore semaphore, IProgressMonitor monitor) {
+        try {
+            while (!semaphore.tryAcquire(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkCancelled(monitor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw RuyiCliException.cancelled();
+        }
+    }
+
+    private static void checkCancelled(IProgressMonitor monitor) {
+        if (monitor != null && monitor.isCanceled()) {
+            throw RuyiCliException.cancelled();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.ruyisdk.ruyi.services;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Deduplicates identical concurrent read-only ruyi invocations.
+ *
+ * <p>
+ * The first caller for a key starts the process; callers arriving while it is still running wait
+ * for the same result. Each caller is cancelled individually through its own monitor. The shared
+ * process is only cancelled once every waiting caller has given up.
+ */
+final class RuyiCliSingleFlight {
+
+    private static final long WAIT_SLICE_MILLIS = 100L;
+
+    private static final Map<Key, Flight> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final var thread = new Thread(runnable, "ruyi-cli-single-flight");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private RuyiCliSingleFlight() {}
+
+    /** Identity of an invocation: everything that can influence the output of the process. */
+    record Key(String ruyiInstallDir, List<String> args, Map<String, String> environment,
+            File workingDirectory, boolean separateErrorStream) {
+    }
+
+    /**
+     * Runs {@code task} for {@code key}, or joins an identical invocation that is already running.
+     *
+     * @param key invocation identity
+     * @param monitor caller's progress monitor (may be {@code null})
+     * @param task launches the process; receives a monitor that reports cancellation once all
+     *        callers have left
+     * @return the shared result
+     */
+    static RuyiExecResult execute(Key key, IProgressMonitor monitor,
+            Function<IProgressMonitor, RuyiExecResult> task) {
+        while (true) {
+            final var flight = IN_FLIGHT.computeIfAbsent(key, k -> new Flight());
+            if (flight.join(key, task)) {
+                return await(key, flight, monitor);
+            }
+            // Every previous caller cancelled; do not reuse a process that is being torn down.
+            IN_FLIGHT.remove(key, flight);
+        }
+    }
+
+    private static RuyiExecResult await(Key key, Flight flight, IProgressMonitor monitor) {
+        try {
+            while (true) {
+                if (monitor != null && monitor.isCanceled()) {
+                    throw RuyiCliException.cancelled();
+                }
+                try {
+                    return flight.future.get(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // keep waiting
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            leave(key, flight);
+            throw RuyiCliException.cancelled();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuyiCliException cliException) {
+                throw cliException;
+            }
+            throw RuyiCliException.executionError(e);
+        } catch (RuyiCliException e) {
+            leave(key, flight);
+            throw e;
+        }
+    }
+
+    private static void leave(Key key, Flight flight) {
+        if (flight.leave()) {
+            IN_FLIGHT.remove(key, flight);
+        }
+    }
+
+    private static final class Flight {
+        private CompletableFuture<RuyiExecResult> future;
+        private int waiters;
+        private boolean abandoned;
+
+        /** Registers a waiter, starting the process for the first one. */
+        synchronized boolean join(Key key, Function<IProgressMonitor, RuyiExecResult> task) {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            if (future == null) {
+                final var sharedMonitor = new NullProgressMonitor() {
+                    @Override
+                    public boolean isCanceled() {
+                        return isAbandoned();
+                    }
+                };
+                future = CompletableFuture.supplyAsync(() -> task.apply(sharedMonitor), EXECUTOR);
+                future.whenComplete((result, error) -> IN_FLIGHT.remove(key, this));
+            }
+            return true;
+        }
+
+        /** Returns true if this was the last waiter and the flight is now abandoned. */
+        synchronized boolean leave() {
+            waiters--;
+            if (waiters <= 0 && !future.isDone()) {
+                abandoned = true;
+            }
+            return abandoned;
+        }
+
+        synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+    }
+}
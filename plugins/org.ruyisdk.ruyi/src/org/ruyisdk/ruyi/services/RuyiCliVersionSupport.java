@@ -1,5 +1,12 @@
 package org.ruyisdk.ruyi.services;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import org.ruyisdk.core.ruyi.model.RuyiVersion;
 
@@ -12,8 +19,21 @@ public final class RuyiCliVersionSupport {
     private static final Pattern VERSION_PATTERN =
             Pattern.compile("(?m)^Ruyi\\s+(\\d+\\.\\d+\\.\\d+)\\b");
 
+    /** Detected versions keyed by install directory, valid while the binary fingerprint holds. */
+    private static final Map<String, CachedVersion> VERSION_CACHE = new ConcurrentHashMap<>();
+
     private RuyiCliVersionSupport() {}
 
+    /**
+     * Identity of a ruyi binary on disk. Replacing or rewriting the binary changes at least one of
+     * the file key (inode on Unix), the modification time or the size.
+     */
+    private record BinaryFingerprint(Object fileKey, long lastModifiedMillis, long size) {
+    }
+
+    private record CachedVersion(BinaryFingerprint fingerprint, RuyiVersion version) {
+    }
+
     /**
      * Detects installed ruyi version by executing {@code ruyi -V} with bypassing the version check
      * in {@link RuyiCliRequest}.
@@ -30,6 +50,60 @@ public final class RuyiCliVersionSupport {
         return parseVersionText(result.getOutput());
     }
 
+    /**
+     * Returns the installed ruyi version, running {@code ruyi -V} only when the binary in
+     * {@code installDir} has not been seen before or has changed since the last detection.
+     *
+     * @param installDir directory containing the ruyi binary
+     * @return parsed semantic version, or {@code null} when output format is unsupported
+     */
+    public static RuyiVersion getCachedInstalledVersion(String installDir) {
+        final var fingerprint = readFingerprint(installDir);
+        if (fingerprint == null) {
+            // Binary cannot be inspected; let the executor report the actual problem.
+            return getInstalledVersion(installDir);
+        }
+
+        final var cached = VERSION_CACHE.get(installDir);
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            return cached.version();
+        }
+
+        final var version = getInstalledVersion(installDir);
+        if (version != null) {
+            VERSION_CACHE.put(installDir, new CachedVersion(fingerprint, version));
+        } else {
+            VERSION_CACHE.remove(installDir);
+        }
+        return version;
+    }
+
+    /**
+     * Forgets the cached version of the binary in {@code installDir}, e.g. after it was replaced by
+     * an installation or upgrade.
+     *
+     * @param installDir directory containing the ruyi binary
+     */
+    public static void invalidateVersionCache(String installDir) {
+        if (installDir != null) {
+            VERSION_CACHE.remove(installDir);
+        }
+    }
+
+    private static BinaryFingerprint readFingerprint(String installDir) {
+        if (installDir == null || installDir.isBlank()) {
+            return null;
+        }
+        try {
+            final var attributes =
+                    Files.readAttributes(Paths.get(installDir, "ruyi"), BasicFileAttributes.class);
+            return new BinaryFingerprint(Objects.requireNonNullElse(attributes.fileKey(), ""),
+                    attributes.lastModifiedTime().toMillis(), attributes.size());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     /**
      * Parses semantic version text from ruyi version command output.
      *
@@ -6,6 +6,7 @@ package org.ruyisdk.ruyi.services;
 public class RuyiExecResult {
     private final int exitCode;
     private final String output;
+    private final String errorOutput;
 
     /**
      * Creates a command execution result.
@@ -14,8 +15,20 @@ public class RuyiExecResult {
      * @param output captured process output
      */
     public RuyiExecResult(int exitCode, String output) {
+        this(exitCode, output, "");
+    }
+
+    /**
+     * Creates a command execution result with separately captured stderr.
+     *
+     * @param exitCode process exit code
+     * @param output captured stdout, or merged stdout and stderr
+     * @param errorOutput captured stderr, empty if it was merged into {@code output}
+     */
+    public RuyiExecResult(int exitCode, String output, String errorOutput) {
         this.exitCode = exitCode;
         this.output = output;
+        this.errorOutput = errorOutput == null ? "" : errorOutput;
     }
 
     public int getExitCode() {
@@ -25,4 +38,9 @@ public class RuyiExecResult {
     public String getOutput() {
         return output;
     }
+
+    /** Returns separately captured stderr, or an empty string if it was merged into stdout. */
+    public String getErrorOutput() {
+        return errorOutput;
+    }
 }
@@ -175,6 +175,7 @@ public final class RuyiInstallManager {
                 } catch (IOException e) {
                     throw RuyiInstallException.filesystemError("Failed to move downloaded file", e);
                 }
+                RuyiCliVersionSupport.invalidateVersionCache(destinationDirectory);
 
                 return ruyiExecutablePath;
             } catch (PluginException e) {
@@ -108,19 +108,19 @@ public class VenvDetectionService {
         return out;
     }
 
-    /** Returns the list of known profiles from the Ruyi CLI. */
-    public List<RuyiCli.ProfileInfo> listProfiles() {
-        return RuyiCli.listProfiles();
+    /** Returns the list of known profiles from the Ruyi CLI; cancelling the monitor stops it. */
+    public List<RuyiCli.ProfileInfo> listProfiles(IProgressMonitor monitor) {
+        return RuyiCli.listProfiles(monitor);
     }
 
-    /** Returns the list of known toolchains from the Ruyi CLI. */
-    public List<RuyiCli.ToolchainInfo> listToolchains() {
-        return RuyiCli.listToolchains();
+    /** Returns the list of known toolchains from the Ruyi CLI; cancelling the monitor stops it. */
+    public List<RuyiCli.ToolchainInfo> listToolchains(IProgressMonitor monitor) {
+        return RuyiCli.listToolchains(monitor);
     }
 
-    /** Returns the list of known emulators from the Ruyi CLI. */
-    public List<RuyiCli.EmulatorInfo> listEmulators() {
-        return RuyiCli.listEmulators();
+    /** Returns the list of known emulators from the Ruyi CLI; cancelling the monitor stops it. */
+    public List<RuyiCli.EmulatorInfo> listEmulators(IProgressMonitor monitor) {
+        return RuyiCli.listEmulators(monitor);
     }
 
     /** Installs a package via the Ruyi CLI. */
@@ -8,15 +8,18 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.WritableList;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.swt.widgets.Display;
+import org.ruyisdk.ruyi.services.RuyiCliAsync;
 import org.ruyisdk.ruyi.services.RuyiCliException;
 import org.ruyisdk.venv.model.Emulator;
 import org.ruyisdk.venv.model.Profile;
@@ -40,6 +43,8 @@ public class VenvWizardViewModel {
     private String loadingMessage = "";
     private String loadingErrorMessage = "";
     private boolean dataLoadStarted;
+    private final AtomicInteger loadGeneration = new AtomicInteger();
+    private volatile IProgressMonitor loadMonitor = new NullProgressMonitor();
 
     private final IObservableList<Profile> profiles =
             new WritableList<>(new ArrayList<>(), Profile.class);
@@ -262,22 +267,20 @@ public class VenvWizardViewModel {
         return sb.toString();
     }
 
-    /** Fetched package data, transferred from the background job to the UI thread. */
-    private record FetchedData(List<Profile> profiles, List<Toolchain> toolchains,
-            List<Emulator> emulators) {
-    }
-
-    private FetchedData fetchData() {
+    private List<Profile> fetchProfiles(IProgressMonitor monitor) {
         final var fetchedProfiles = new ArrayList<Profile>();
-        final var profileInfos = service.listProfiles();
+        final var profileInfos = service.listProfiles(monitor);
         if (profileInfos != null) {
             for (final var profileInfo : profileInfos) {
                 fetchedProfiles.add(new Profile(profileInfo.getName(), profileInfo.getQuirks()));
             }
         }
+        return fetchedProfiles;
+    }
 
+    private List<Toolchain> fetchToolchains(IProgressMonitor monitor) {
         final var fetchedToolchains = new ArrayList<Toolchain>();
-        final var toolchainInfos = service.listToolchains();
+        final var toolchainInfos = service.listToolchains(monitor);
         if (toolchainInfos != null) {
             for (final var toolchainInfo : toolchainInfos) {
                 fetchedToolchains
@@ -285,30 +288,49 @@ public class VenvWizardViewModel {
                                 toolchainInfo.getQuirks(), toolchainInfo.hasIncludedSysroot()));
             }
         }
+        return fetchedToolchains;
+    }
 
+    private List<Emulator> fetchEmulators(IProgressMonitor monitor) {
         final var fetchedEmulators = new ArrayList<Emulator>();
-        final var emulatorInfos = service.listEmulators();
+        final var emulatorInfos = service.listEmulators(monitor);
         if (emulatorInfos != null) {
             for (final var emulatorInfo : emulatorInfos) {
                 fetchedEmulators.add(new Emulator(emulatorInfo.getName(),
                         emulatorInfo.getVersions(), emulatorInfo.getQuirks()));
             }
         }
-
-        return new FetchedData(fetchedProfiles, fetchedToolchains, fetchedEmulators);
+        return fetchedEmulators;
     }
 
-    private void applyFetchedData(FetchedData data) {
-        final Runnable update = () -> {
+    private void applyProfiles(List<Profile> fetchedProfiles) {
+        runOnRealm(() -> {
             profiles.clear();
-            profiles.addAll(data.profiles());
+            profiles.addAll(fetchedProfiles);
+            repopulatePackagesByProfile();
+            recomputeDerivedState();
+        });
+    }
+
+    private void applyToolchains(List<Toolchain> fetchedToolchains) {
+        runOnRealm(() -> {
             allToolchains.clear();
-            allToolchains.addAll(data.toolchains());
+            allToolchains.addAll(fetchedToolchains);
+            repopulatePackagesByProfile();
+            recomputeDerivedState();
+        });
+    }
+
+    private void applyEmulators(List<Emulator> fetchedEmulators) {
+        runOnRealm(() -> {
             allEmulators.clear();
-            allEmulators.addAll(data.emulators());
+            allEmulators.addAll(fetchedEmulators);
             repopulatePackagesByProfile();
             recomputeDerivedState();
-        };
+        });
+    }
+
+    private void runOnRealm(Runnable update) {
         // Observable lists may only be mutated on their own realm.
         if (profiles.getRealm().isCurrent()) {
             update.run();
@@ -317,57 +339,89 @@ public class VenvWizardViewModel {
         }
     }
 
-    /** Loads package lists from the Ruyi CLI and refreshes all view model data. */
-    public void loadAll() {
-        applyFetchedData(fetchData());
-    }
-
     /**
-     * Loads package lists from the Ruyi CLI asynchronously, keeping the UI responsive. Progress and
-     * failures are reported through the {@code dataLoading}, {@code loadingMessage} and
-     * {@code loadingErrorMessage} properties. Does nothing if a load is already running.
+     * Loads package lists from the Ruyi CLI asynchronously, keeping the UI responsive. Profiles,
+     * toolchains and emulators are fetched concurrently and each list is published as soon as it
+     * arrives. Progress and failures are reported through the {@code dataLoading},
+     * {@code loadingMessage} and {@code loadingErrorMessage} properties. Does nothing if a load is
+     * already running.
      */
     public void loadAllAsync() {
         if (dataLoading) {
             return;
         }
         dataLoadStarted = true;
+        final var generation = loadGeneration.incrementAndGet();
+        final var pending = new LinkedHashSet<>(List.of("profiles", "toolchains", "emulators"));
 
         runOnUiThread(() -> {
             setLoadingErrorMessage("");
             setDataLoading(true);
-            setLoadingMessage("Loading package data...");
+            setLoadingMessage(toLoadingMessage(pending));
         });
 
-        final var job = Job.create("Loading package data", monitor -> {
-            if (monitor.isCanceled()) {
-                runOnUiThread(() -> {
-                    setDataLoading(false);
-                    setLoadingMessage("Loading cancelled.");
-                });
-                return Status.CANCEL_STATUS;
-            }
-            try {
-                final var fetched = fetchData();
-                runOnUiThread(() -> {
-                    applyFetchedData(fetched);
-                    setDataLoading(false);
-                    setLoadingMessage("");
-                    setLoadingErrorMessage("");
-                });
-                return Status.OK_STATUS;
-            } catch (Exception e) {
-                final var message = e.getMessage() == null ? e.toString() : e.getMessage();
-                runOnUiThread(() -> {
-                    setDataLoading(false);
-                    setLoadingMessage("");
-                    setLoadingErrorMessage(message);
-                });
-                return new Status(IStatus.ERROR, "org.ruyisdk.venv", "Failed to load package data",
-                        e);
+        final var monitor = new NullProgressMonitor();
+        loadMonitor = monitor;
+        final var fetchedProfiles = RuyiCliAsync.supply(() -> fetchProfiles(monitor));
+        final var fetchedToolchains = RuyiCliAsync.supply(() -> fetchToolchains(monitor));
+        final var fetchedEmulators = RuyiCliAsync.supply(() -> fetchEmulators(monitor));
+
+        publishWhenLoaded(fetchedProfiles, "profiles", this::applyProfiles, pending, generation);
+        publishWhenLoaded(fetchedToolchains, "toolchains", this::applyToolchains, pending,
+                generation);
+        publishWhenLoaded(fetchedEmulators, "emulators", this::applyEmulators, pending, generation);
+    }
+
+    /**
+     * Cancels an asynchronous load that is still running, e.g. because the wizard was closed. The
+     * ruyi processes of the load are stopped, and results that arrive afterwards are discarded.
+     */
+    public void cancelLoading() {
+        abandonPendingLoads();
+        runOnUiThread(() -> {
+            if (dataLoading) {
+                setDataLoading(false);
+                setLoadingMessage("Loading cancelled.");
             }
         });
-        job.schedule();
+    }
+
+    private void abandonPendingLoads() {
+        loadGeneration.incrementAndGet();
+        loadMonitor.setCanceled(true);
+    }
+
+    private <T> void publishWhenLoaded(CompletableFuture<T> load, String part, Consumer<T> apply,
+            Set<String> pending, int generation) {
+        load.whenComplete((value, failure) -> runOnUiThread(() -> {
+            // Pending parts are only touched on the UI thread.
+            if (generation != loadGeneration.get()) {
+                return;
+            }
+            if (failure != null) {
+                abandonPendingLoads();
+                final var cause = RuyiCliAsync.unwrap(failure);
+                final var message =
+                        cause.getMessage() == null ? cause.toString() : cause.getMessage();
+                setDataLoading(false);
+                setLoadingMessage("");
+                setLoadingErrorMessage(message);
+                return;
+            }
+            apply.accept(value);
+            pending.remove(part);
+            if (pending.isEmpty()) {
+                setDataLoading(false);
+                setLoadingMessage("");
+                setLoadingErrorMessage("");
+            } else {
+                setLoadingMessage(toLoadingMessage(pending));
+            }
+        }));
+    }
+
+    private static String toLoadingMessage(Set<String> pending) {
+        return "Loading " + String.join(", ", pending) + "...";
     }
 
     private static void runOnUiThread(Runnable runnable) {
@@ -40,6 +40,12 @@ public class VenvWizard extends Wizard {
         addPage(locationPage);
     }
 
+    @Override
+    public void dispose() {
+        viewModel.cancelLoading();
+        super.dispose();
+    }
+
     @Override
     public boolean canFinish() {
         return locationPage != null && locationPage.isPageComplete()
@@ -720,6 +720,14 @@ public class WizardConfigPage extends WizardPage {
                 .value(VenvWizardViewModel.class, "configurationPageComplete", Boolean.class)
                 .observe(viewModel);
         completeObservable.addValueChangeListener(e -> updatePageComplete());
+
+        final var loadingErrorObservable =
+                BeanProperties.value(VenvWizardViewModel.class, "loadingErrorMessage", String.class)
+                        .observe(viewModel);
+        loadingErrorObservable.addValueChangeListener(e -> {
+            final var message = viewModel.getLoadingErrorMessage();
+            setErrorMessage(message == null || message.isEmpty() ? null : message);
+        });
     }
 
     private void updatePageComplete() {
@@ -754,6 +762,6 @@ public class WizardConfigPage extends WizardPage {
         }
 
         // the observable lists fire change events that refresh the bound viewers
-        viewModel.loadAll();
+        viewModel.loadAllAsync();
     }
 }
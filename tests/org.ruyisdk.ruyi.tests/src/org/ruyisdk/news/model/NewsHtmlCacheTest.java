@@ -0,0 +1,52 @@
+package org.ruyisdk.news.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link NewsHtmlCache}.
+ */
+public class NewsHtmlCacheTest {
+
+    private static NewsStore.Entry entry(String id) {
+        return new NewsStore.Entry("# " + id, "<h1>" + id + "</h1>");
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        var cache = new NewsHtmlCache(2);
+        cache.put("a", entry("a"));
+        cache.put("b", entry("b"));
+
+        // Reading "a" makes "b" the eldest
+        assertEquals(entry("a"), cache.get("a"));
+        cache.put("c", entry("c"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(entry("a"), cache.get("a"));
+        assertEquals(entry("c"), cache.get("c"));
+    }
+
+    @Test
+    public void containsDoesNotChangeRecency() {
+        var cache = new NewsHtmlCache(2);
+        cache.put("a", entry("a"));
+        cache.put("b", entry("b"));
+
+        assertTrue(cache.contains("a"));
+        cache.put("c", entry("c"));
+
+        assertFalse(cache.contains("a"));
+        assertTrue(cache.contains("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroCapacity() {
+        new NewsHtmlCache(0);
+    }
+}
@@ -0,0 +1,94 @@
+package org.ruyisdk.news.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link NewsStore}.
+ */
+public class NewsStoreTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("news-store");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // List metadata
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void emptyStoreHasNoItems() throws IOException {
+        assertEquals(List.of(), new NewsStore(dir.resolve("missing")).loadItems());
+    }
+
+    @Test
+    public void itemsRoundTrip() throws IOException {
+        var store = new NewsStore(dir);
+        store.saveItems(List.of(new NewsItem(2, "Second", "2024-02-01-second", true),
+                new NewsItem(1, "First", "2024-01-01-first", false)));
+
+        var items = new NewsStore(dir).loadItems();
+
+        assertEquals(2, items.size());
+        assertEquals(2, items.get(0).getOrd());
+        assertEquals("Second", items.get(0).getTitle());
+        assertEquals("2024-02-01-second", items.get(0).getId());
+        assertTrue(items.get(0).getUnread());
+        assertFalse(items.get(1).getUnread());
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptIndexIsReported() throws IOException {
+        Files.writeString(dir.resolve("index.bin"), "not gzip");
+        new NewsStore(dir).loadItems();
+    }
+
+    // -----------------------------------------------------------------------
+    // Bodies
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void entriesRoundTrip() throws IOException {
+        var store = new NewsStore(dir);
+        assertNull(store.readEntry("2024-01-01-first"));
+
+        store.saveEntry("2024-01-01-first", new NewsStore.Entry("# First", "<h1>First</h1>"));
+
+        assertEquals(new NewsStore.Entry("# First", "<h1>First</h1>"),
+                new NewsStore(dir).readEntry("2024-01-01-first"));
+    }
+
+    @Test
+    public void unsafeIdsStayInsideStore() throws IOException {
+        var store = new NewsStore(dir);
+        store.saveEntry("../escape", new NewsStore.Entry("a", "b"));
+        store.saveEntry("..", new NewsStore.Entry("c", "d"));
+
+        assertEquals(new NewsStore.Entry("a", "b"), store.readEntry("../escape"));
+        assertEquals(new NewsStore.Entry("c", "d"), store.readEntry(".."));
+        assertNull(store.readEntry("escape"));
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(dir.resolve("items")), files.toList());
+        }
+    }
+}
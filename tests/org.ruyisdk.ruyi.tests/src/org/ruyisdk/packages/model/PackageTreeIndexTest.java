@@ -0,0 +1,122 @@
+package org.ruyisdk.packages.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PackageTreeIndex}.
+ */
+public class PackageTreeIndexTest {
+
+    // ------------------------------------------------------------------
+    // Matching
+    // ------------------------------------------------------------------
+
+    @Test
+    public void matchesCategoryPackageVersionAndRemarks() {
+        TreeNode root = new TreeNode("All Packages", null);
+        TreeNode toolchain = addChild(root, "toolchain");
+        TreeNode gcc = addChild(toolchain, "gnu-plct");
+        TreeNode gcc13 = addLeaf(gcc, "13.1.0", "gnu-plct(13.1.0)");
+        TreeNode gcc14 = addLeaf(gcc, "14.0.0 [prerelease]", "gnu-plct(14.0.0)");
+        TreeNode emulator = addChild(root, "emulator");
+        TreeNode qemu = addLeaf(addChild(emulator, "qemu-user-riscv-upstream"), "8.2.0",
+                        "qemu-user-riscv-upstream(8.2.0)");
+
+        PackageTreeIndex index = PackageTreeIndex.build(root);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(gcc13, gcc14), index.query("toolchain"));
+        assertEquals(List.of(gcc14), index.query("PreRelease"));
+        assertEquals(List.of(qemu), index.query("qemu 8.2"));
+        assertEquals(List.of(gcc13), index.query("  plct   13 "));
+        assertEquals(List.of(), index.query("llvm"));
+        assertEquals(List.of(gcc13, gcc14, qemu), index.query(""));
+    }
+
+    @Test
+    public void extendingAndShorteningQueryStaysConsistent() {
+        TreeNode root = new TreeNode("All Packages", null);
+        TreeNode pkg = addChild(addChild(root, "toolchain"), "gnu-upstream");
+        TreeNode v1 = addLeaf(pkg, "13.2.0", "gnu-upstream(13.2.0)");
+        TreeNode v2 = addLeaf(pkg, "14.1.0", "gnu-upstream(14.1.0)");
+
+        PackageTreeIndex index = PackageTreeIndex.build(root);
+
+        assertEquals(List.of(v1, v2), index.query("gnu 1"));
+        assertEquals(List.of(v2), index.query("gnu 14"));
+        assertEquals(List.of(v1, v2), index.query("gnu"));
+        assertEquals(List.of(v1), index.query("gnu 13"));
+    }
+
+    @Test
+    public void addWithAncestorsKeepsPathToRoot() {
+        TreeNode root = new TreeNode("All Packages", null);
+        TreeNode category = addChild(root, "toolchain");
+        TreeNode pkg = addChild(category, "gnu-plct");
+        TreeNode leaf = addLeaf(pkg, "13.1.0", "gnu-plct(13.1.0)");
+        addLeaf(addChild(root, "emulator"), "8.2.0", "qemu(8.2.0)");
+
+        Set<TreeNode> visible = new HashSet<>();
+        PackageTreeIndex.addWithAncestors(List.of(leaf), visible);
+
+        assertEquals(Set.of(root, category, pkg, leaf), visible);
+    }
+
+    // ------------------------------------------------------------------
+    // Large catalog
+    // ------------------------------------------------------------------
+
+    /** Typing a query letter by letter on a 20k-leaf catalog narrows to the same matches. */
+    @Test
+    public void incrementalQueriesOn20kLeavesMatchFreshQueries() {
+        TreeNode root = new TreeNode("All Packages", null);
+        for (int c = 0; c < 20; c++) {
+            TreeNode category = addChild(root, "category-" + c);
+            for (int p = 0; p < 200; p++) {
+                TreeNode pkg = addChild(category, "package-" + c + "-" + p);
+                for (int v = 0; v < 5; v++) {
+                    addLeaf(pkg, "1." + v + ".0" + (v == 4 ? " [prerelease]" : ""),
+                                    "package-" + c + "-" + p + "(1." + v + ".0)");
+                }
+            }
+        }
+        PackageTreeIndex index = PackageTreeIndex.build(root);
+        assertEquals(20_000, index.size());
+
+        String typed = "package-7-199 1.4 pre";
+        PackageTreeIndex reference = PackageTreeIndex.build(root);
+        for (int i = 1; i <= typed.length(); i++) {
+            String prefix = typed.substring(0, i);
+            // A query that no prefix extends makes the reference evaluate from scratch
+            reference.query("#");
+            assertEquals(prefix, reference.query(prefix), index.query(prefix));
+        }
+
+        List<TreeNode> matches = index.query(typed);
+        assertEquals(1, matches.size());
+        assertEquals("package-7-199(1.4.0)", matches.get(0).getPackageRef());
+    }
+
+    // ------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------
+
+    private static TreeNode addChild(TreeNode parent, String name) {
+        TreeNode node = new TreeNode(name, null);
+        parent.addChild(node);
+        return node;
+    }
+
+    private static TreeNode addLeaf(TreeNode parent, String name, String packageRef) {
+        TreeNode node = new TreeNode(name, null, packageRef);
+        node.setLeaf(true);
+        parent.addChild(node);
+        return node;
+    }
+}
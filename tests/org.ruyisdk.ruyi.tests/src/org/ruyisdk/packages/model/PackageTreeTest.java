@@ -0,0 +1,42 @@
+package org.ruyisdk.packages.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PackageTree}.
+ */
+public class PackageTreeTest {
+
+    @Test
+    public void indexLeavesMapsPackageRefsToVersionNodes() {
+        TreeNode root = new TreeNode("All Packages", null);
+        TreeNode category = new TreeNode("toolchain", null);
+        TreeNode gcc = new TreeNode("gnu-plct", null);
+        TreeNode v1 = createLeaf("1.0", "gnu-plct(1.0)");
+        TreeNode v2 = createLeaf("2.0", "gnu-plct(2.0)");
+        root.addChild(category);
+        category.addChild(gcc);
+        gcc.addChild(v1);
+        gcc.addChild(v2);
+
+        var leaves = PackageTree.indexLeaves(root);
+
+        assertEquals(2, leaves.size());
+        assertSame(v1, leaves.get("gnu-plct(1.0)"));
+        assertSame(v2, leaves.get("gnu-plct(2.0)"));
+    }
+
+    @Test
+    public void indexLeavesOfEmptyTree() {
+        assertEquals(0, PackageTree.indexLeaves(new TreeNode("All Packages", null)).size());
+    }
+
+    private static TreeNode createLeaf(String name, String packageRef) {
+        TreeNode node = new TreeNode(name, null, packageRef);
+        node.setLeaf(true);
+        return node;
+    }
+}
@@ -6,7 +6,14 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
@@ -163,6 +170,350 @@ public class PackageOperationRunnerTest {
         assertEquals("onAllFinished:false", events.get(events.size() - 1));
     }
 
+    // ------------------------------------------------------------------
+    // Batching
+    // ------------------------------------------------------------------
+
+    @Test
+    public void consecutiveSameKindOperations_runAsOneBatchPerKind() {
+        List<String> events = new ArrayList<>();
+        List<List<PackageOperation>> batches = new ArrayList<>();
+        List<PackageOperation> singles = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+            singles.add(op);
+        }, (ops, lineCallback) -> {
+            batches.add(ops);
+        });
+
+        List<PackageOperation> ops = List.of(
+                        new PackageOperation("old(1.0)", true),
+                        new PackageOperation("older(0.9)", true),
+                        new PackageOperation("a(1.0)", false),
+                        new PackageOperation("b(2.0)", false),
+                        new PackageOperation("c(3.0)", false));
+
+        runner.run(ops, new RecordingCallback(events), () -> false);
+
+        assertEquals(2, batches.size());
+        assertEquals(ops.subList(0, 2), batches.get(0));
+        assertEquals(ops.subList(2, 5), batches.get(1));
+        assertTrue(singles.isEmpty());
+        for (int i = 0; i < ops.size(); i++) {
+            assertTrue(events.indexOf("onStepDone:" + i) > events
+                            .indexOf("onStepStart:" + i + ":5:" + ops.get(i).packageRef()));
+        }
+        assertEquals("onAllFinished:false", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void batchOutput_advancesStepsPerPackage() {
+        List<String> events = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+        }, (ops, lineCallback) -> {
+            lineCallback.accept("info: downloading gnu-a-1.0.tar.zst");
+            lineCallback.accept("info: package gnu-a-1.0 installed to /opt/gnu-a");
+            lineCallback.accept("info: skipping already installed package gnu-b-2.0");
+        });
+
+        List<PackageOperation> ops = List.of(
+                        new PackageOperation("gnu-a(1.0)", false),
+                        new PackageOperation("gnu-b(2.0)", false));
+
+        runner.run(ops, new RecordingCallback(events), () -> false);
+
+        assertEquals(List.of(
+                        "onStepStart:0:2:gnu-a(1.0)",
+                        "onOutputLine:info: downloading gnu-a-1.0.tar.zst",
+                        "onOutputLine:info: package gnu-a-1.0 installed to /opt/gnu-a",
+                        "onStepDone:0",
+                        "onStepStart:1:2:gnu-b(2.0)",
+                        "onOutputLine:info: skipping already installed package gnu-b-2.0",
+                        "onStepDone:1",
+                        "onAllFinished:false"), events);
+    }
+
+    @Test
+    public void batchOutput_doesNotConfirmPackageByNamePrefix() {
+        List<String> singles = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner(
+                        (op, lineCallback) -> singles.add(op.packageRef()),
+                        (ops, lineCallback) -> {
+                            lineCallback.accept(
+                                            "info: package gnu-plct-xthead-2.8.0 installed to /opt/x");
+                            throw RuyiCliException.executionFailed("install", 1, "failed");
+                        });
+
+        runner.run(List.of(new PackageOperation("gnu-plct(2.8.0)", false),
+                        new PackageOperation("qemu(1.0)", false)),
+                        new RecordingCallback(new ArrayList<>()), () -> false);
+        runner.run(List.of(new PackageOperation("gnu-plct", false),
+                        new PackageOperation("qemu(1.0)", false)),
+                        new RecordingCallback(new ArrayList<>()), () -> false);
+
+        // Neither gnu-plct step is confirmed by the gnu-plct-xthead line
+        assertEquals(List.of("gnu-plct(2.8.0)", "qemu(1.0)", "gnu-plct", "qemu(1.0)"), singles);
+    }
+
+    @Test
+    public void batchOutput_confirmsUnversionedPackageByName() {
+        List<String> events = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+        }, (ops, lineCallback) -> {
+            lineCallback.accept("info: package gnu-plct-xthead-2.8.0 installed to /opt/x");
+            lineCallback.accept("info: package gnu-plct-2.8.0 installed to /opt/gnu-plct");
+        });
+
+        runner.run(List.of(new PackageOperation("gnu-plct", false),
+                        new PackageOperation("qemu(1.0)", false)),
+                        new RecordingCallback(events), () -> false);
+
+        assertTrue(events.indexOf("onStepDone:0") > events
+                        .indexOf("onOutputLine:info: package gnu-plct-2.8.0 installed to /opt/gnu-plct"));
+    }
+
+    @Test
+    public void failedBatch_retriesUnfinishedOperationsIndividually() {
+        List<String> events = new ArrayList<>();
+        List<String> singles = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+            singles.add(op.packageRef());
+            if ("bad(2.0)".equals(op.packageRef())) {
+                throw RuyiCliException.executionFailed("install bad(2.0)", 1, "no such package");
+            }
+        }, (ops, lineCallback) -> {
+            lineCallback.accept("info: package good-1.0 installed to /opt/good");
+            throw RuyiCliException.executionFailed("install", 1, "no such package");
+        });
+
+        List<PackageOperation> ops = List.of(
+                        new PackageOperation("good(1.0)", false),
+                        new PackageOperation("bad(2.0)", false),
+                        new PackageOperation("after(3.0)", false));
+
+        runner.run(ops, new RecordingCallback(events), () -> false);
+
+        // Only the packages not confirmed by the batch output are retried
+        assertEquals(List.of("bad(2.0)", "after(3.0)"), singles);
+        assertTrue(events.contains("onStepDone:0"));
+        Assertions.assertThat(events).anySatisfy(
+                        e -> Assertions.assertThat(e).startsWith("onStepFailed:1:"));
+        assertTrue(events.contains("onStepDone:2"));
+        assertEquals(1, events.stream().filter(e -> e.startsWith("onStepStart:1:")).count());
+        assertEquals("onAllFinished:false", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void singleOperation_doesNotUseBatchInstaller() {
+        List<String> events = new ArrayList<>();
+        List<PackageOperation> singles = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+            singles.add(op);
+        }, (ops, lineCallback) -> {
+            throw new AssertionError("unexpected batch");
+        });
+
+        List<PackageOperation> ops = List.of(
+                        new PackageOperation("a(1.0)", false),
+                        new PackageOperation("b(1.0)", true));
+
+        runner.run(ops, new RecordingCallback(events), () -> false);
+
+        assertEquals(ops, singles);
+        assertEquals("onAllFinished:false", events.get(events.size() - 1));
+    }
+
+    // ------------------------------------------------------------------
+    // Prefetching
+    // ------------------------------------------------------------------
+
+    @Test
+    public void prefetch_downloadsConcurrentlyBeforeEachInstall() {
+        List<String> events = new ArrayList<>();
+        Set<String> fetched = ConcurrentHashMap.newKeySet();
+        CountDownLatch allFetching = new CountDownLatch(3);
+        List<String> installedAfterFetch = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+            if (fetched.contains(op.packageRef())) {
+                installedAfterFetch.add(op.packageRef());
+            }
+        }, null, (op, cancelFlag) -> {
+            allFetching.countDown();
+            try {
+                // All three downloads must be in flight together
+                assertTrue(allFetching.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            fetched.add(op.packageRef());
+        });
+
+        List<PackageOperation> ops = List.of(
+                        new PackageOperation("a(1.0)", false),
+                        new PackageOperation("old(1.0)", true),
+                        new PackageOperation("b(1.0)", false),
+                        new PackageOperation("c(1.0)", false));
+
+        runner.run(ops, new RecordingCallback(events), () -> false);
+
+        assertEquals(Set.of("a(1.0)", "b(1.0)", "c(1.0)"), fetched);
+        assertEquals(List.of("a(1.0)", "b(1.0)", "c(1.0)"), installedAfterFetch);
+        assertEquals("onAllFinished:false", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void prefetchFailure_doesNotFailInstall() {
+        List<String> events = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+        }, null, (op, cancelFlag) -> {
+            throw RuyiCliException.executionFailed("install -f", 1, "network down");
+        });
+
+        List<PackageOperation> ops = List.of(
+                        new PackageOperation("a(1.0)", false),
+                        new PackageOperation("b(1.0)", false));
+
+        runner.run(ops, new RecordingCallback(events), () -> false);
+
+        assertTrue(events.contains("onStepDone:0"));
+        assertTrue(events.contains("onStepDone:1"));
+    }
+
+    @Test
+    public void prefetch_skippedForSingleInstall() {
+        List<String> events = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+        }, null, (op, cancelFlag) -> {
+            throw new AssertionError("unexpected prefetch");
+        });
+
+        runner.run(List.of(new PackageOperation("a(1.0)", false),
+                        new PackageOperation("b(1.0)", true)), new RecordingCallback(events),
+                        () -> false);
+
+        assertEquals("onAllFinished:false", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void prefetch_boundedByLaneWidth() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+        }, null, (op, cancelFlag) -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+        }, 2);
+
+        List<PackageOperation> ops = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ops.add(new PackageOperation("p" + i + "(1.0)", false));
+        }
+        List<PackageOperationRunner.RunStats> stats = new ArrayList<>();
+        runner.run(ops, new RecordingCallback(new ArrayList<>()) {
+            @Override
+            public void onStats(PackageOperationRunner.RunStats runStats) {
+                stats.add(runStats);
+            }
+        }, () -> false);
+
+        assertTrue(peak.get() <= 2);
+        assertEquals(6, stats.get(0).prefetched());
+    }
+
+    // ------------------------------------------------------------------
+    // Cancellation of the running operation
+    // ------------------------------------------------------------------
+
+    @Test
+    public void cancel_interruptsRunningOperation() throws Exception {
+        List<String> events = new ArrayList<>();
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        CountDownLatch started = new CountDownLatch(1);
+
+        PackageOperationRunner runner = new PackageOperationRunner(
+                        new PackageOperationRunner.PackageInstaller() {
+                            @Override
+                            public void execute(PackageOperation op,
+                                            Consumer<String> lineCallback) {
+                                throw new AssertionError("cancel flag not passed");
+                            }
+
+                            @Override
+                            public void execute(PackageOperation op,
+                                            Consumer<String> lineCallback,
+                                            BooleanSupplier cancelFlag) {
+                                started.countDown();
+                                while (!cancelFlag.getAsBoolean()) {
+                                    Thread.onSpinWait();
+                                }
+                                throw RuyiCliException.cancelled();
+                            }
+                        });
+
+        Thread worker = new Thread(() -> runner.run(
+                        List.of(new PackageOperation("a(1.0)", false),
+                                        new PackageOperation("b(1.0)", false)),
+                        new RecordingCallback(events), cancelled::get));
+        worker.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cancelled.set(true);
+        worker.join(5000);
+
+        assertFalse(worker.isAlive());
+        assertTrue(events.get(1).startsWith("onStepFailed:0:"));
+        assertFalse(events.stream().anyMatch(e -> e.startsWith("onStepStart:1:")));
+        assertEquals("onAllFinished:true", events.get(events.size() - 1));
+    }
+
+    // ------------------------------------------------------------------
+    // Aggregate statistics
+    // ------------------------------------------------------------------
+
+    @Test
+    public void stats_reportedBeforeAllFinished() {
+        List<String> events = new ArrayList<>();
+
+        PackageOperationRunner runner = new PackageOperationRunner((op, lineCallback) -> {
+            if (op.packageRef().startsWith("bad")) {
+                throw RuyiCliException.executionFailed("install", 1, "boom");
+            }
+        }, null, null);
+
+        runner.run(List.of(new PackageOperation("a(1.0)", false),
+                        new PackageOperation("bad(1.0)", false),
+                        new PackageOperation("c(1.0)", true)), new RecordingCallback(events) {
+                            @Override
+                            public void onStats(PackageOperationRunner.RunStats stats) {
+                                events.add("onStats:" + stats.succeeded() + ":" + stats.failed()
+                                                + ":" + stats.prefetched());
+                                assertTrue(stats.operationsPerMinute() >= 0);
+                            }
+                        }, () -> false);
+
+        assertEquals(List.of("onStats:2:1:0", "onAllFinished:false"),
+                        events.subList(events.size() - 2, events.size()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void laneWidth_mustBePositive() {
+        new PackageOperationRunner((op, lineCallback) -> {
+        }, null, null, 0);
+    }
+
     // ------------------------------------------------------------------
     // Test helpers
     // ------------------------------------------------------------------
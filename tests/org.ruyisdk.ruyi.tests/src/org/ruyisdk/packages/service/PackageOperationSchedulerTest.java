@@ -0,0 +1,47 @@
+package org.ruyisdk.packages.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.ruyisdk.packages.model.PackageOperation;
+
+/**
+ * Unit tests for {@link PackageOperationScheduler}.
+ */
+public class PackageOperationSchedulerTest {
+
+    @Test
+    public void uninstallsComeFirst_keepingOrderWithinKind() {
+        var ops = List.of(
+                        new PackageOperation("gcc(2.0)", false),
+                        new PackageOperation("gcc(1.0)", true),
+                        new PackageOperation("qemu(1.0)", false),
+                        new PackageOperation("llvm(1.0)", true));
+
+        assertEquals(List.of(
+                        new PackageOperation("gcc(1.0)", true),
+                        new PackageOperation("llvm(1.0)", true),
+                        new PackageOperation("gcc(2.0)", false),
+                        new PackageOperation("qemu(1.0)", false)),
+                        PackageOperationScheduler.order(ops));
+    }
+
+    @Test
+    public void duplicatesAreDropped() {
+        var ops = List.of(
+                        new PackageOperation("a(1.0)", false),
+                        new PackageOperation("a(1.0)", false),
+                        new PackageOperation("a(1.0)", true));
+
+        assertEquals(List.of(new PackageOperation("a(1.0)", true),
+                        new PackageOperation("a(1.0)", false)),
+                        PackageOperationScheduler.order(ops));
+    }
+
+    @Test
+    public void emptyInput() {
+        assertEquals(List.of(), PackageOperationScheduler.order(List.of()));
+    }
+}
@@ -1,8 +1,13 @@
 package org.ruyisdk.packages.viewmodel;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.Test;
 import org.ruyisdk.packages.model.TreeNode;
 
@@ -153,6 +158,176 @@ public class CheckStateTrackerTest {
         assertFalse(tracker.isEffectivelyChecked(leaf));
     }
 
+    @Test
+    public void carryOverMovesLeafOverridesByPackageRef() {
+        TreeNode oldLeaf = new TreeNode("1.0", null, "gnu(1.0)");
+        oldLeaf.setLeaf(true);
+        TreeNode oldGone = new TreeNode("2.0", null, "gone(2.0)");
+        oldGone.setLeaf(true);
+        TreeNode newLeaf = new TreeNode("1.0", null, "gnu(1.0)");
+        newLeaf.setLeaf(true);
+        CheckStateTracker tracker = new CheckStateTracker();
+
+        tracker.setSelected(oldLeaf, true);
+        tracker.setSelected(oldGone, true);
+        tracker.carryOver(Map.of("gnu(1.0)", newLeaf));
+
+        assertTrue(tracker.isEffectivelyChecked(newLeaf));
+        assertFalse(tracker.isEffectivelyChecked(oldLeaf));
+        assertFalse(tracker.isEffectivelyChecked(oldGone));
+    }
+
+    @Test
+    public void resetDropsOnlyThatOverride() {
+        TreeNode installed = createLeaf("installed");
+        TreeNode other = createLeaf("other");
+        CheckStateTracker tracker = new CheckStateTracker();
+
+        tracker.setSelected(installed, true);
+        tracker.setSelected(other, true);
+
+        // The install succeeded: the leaf is now downloaded and follows that state again.
+        installed.setDownloaded(true);
+        tracker.reset(installed);
+        assertTrue(tracker.isEffectivelyChecked(installed));
+        assertTrue("Other overrides should be kept", tracker.isEffectivelyChecked(other));
+
+        installed.setDownloaded(false);
+        assertFalse(tracker.isEffectivelyChecked(installed));
+    }
+
+    // ------------------------------------------------------------------
+    // Memoized counters
+    // ------------------------------------------------------------------
+
+    /**
+     * Cached parent state must follow overrides, resets and downloaded changes made after it was
+     * first computed.
+     */
+    @Test
+    public void cachedParentStateFollowsChanges() {
+        TreeNode leaf1 = createLeaf("leaf1");
+        TreeNode leaf2 = createLeaf("leaf2");
+        TreeNode mid = new TreeNode("mid", null);
+        mid.addChild(leaf1);
+        mid.addChild(leaf2);
+        TreeNode root = new TreeNode("root", null);
+        root.addChild(mid);
+
+        CheckStateTracker tracker = new CheckStateTracker();
+        assertFalse(tracker.isEffectivelyChecked(root));
+
+        tracker.setSelected(leaf1, true);
+        assertTrue(tracker.isEffectivelyChecked(root));
+        assertTrue(tracker.isEffectivelyGrayed(root));
+
+        leaf2.setDownloaded(true);
+        assertFalse(tracker.isEffectivelyGrayed(root));
+
+        tracker.reset(leaf1);
+        assertTrue(tracker.isEffectivelyGrayed(mid));
+
+        TreeNode leaf3 = createLeaf("leaf3");
+        leaf3.setDownloaded(true);
+        mid.addChild(leaf3);
+        tracker.setSelected(leaf1, true);
+        assertFalse(tracker.isEffectivelyGrayed(root));
+        assertTrue(tracker.isEffectivelyChecked(root));
+    }
+
+    /**
+     * On a 10k-leaf tree, querying every non-leaf node (as a repaint does) must agree with a full
+     * subtree walk while overrides, downloaded states and children change between repaints.
+     * Overrides leave the tree revision alone and are applied to the cached counters; tree changes
+     * bump the revision and force a recount.
+     */
+    @Test
+    public void memoizedQueriesMatchSubtreeWalkOn10kLeaves() {
+        TreeNode root = new TreeNode("All Packages", null);
+        List<TreeNode> parents = new ArrayList<>();
+        List<TreeNode> leaves = new ArrayList<>();
+        parents.add(root);
+        for (int c = 0; c < 10; c++) {
+            TreeNode category = new TreeNode("category" + c, null);
+            root.addChild(category);
+            parents.add(category);
+            for (int p = 0; p < 100; p++) {
+                TreeNode pkg = new TreeNode("package" + p, null);
+                category.addChild(pkg);
+                parents.add(pkg);
+                for (int v = 0; v < 10; v++) {
+                    TreeNode leaf = createLeaf("version" + v);
+                    leaf.setDownloaded(v == 0);
+                    pkg.addChild(leaf);
+                    leaves.add(leaf);
+                }
+            }
+        }
+        assertEquals(10_000, leaves.size());
+
+        CheckStateTracker tracker = new CheckStateTracker();
+        Map<TreeNode, Boolean> overrides = new HashMap<>();
+        assertEquals(repaintBySubtreeWalk(parents, overrides), repaintByTracker(parents, tracker));
+
+        for (int round = 1; round <= 30; round++) {
+            TreeNode toggled = leaves.get(round * 7919 % leaves.size());
+            boolean checked = !tracker.isEffectivelyChecked(toggled);
+            long revision = root.getRevision();
+            overrides.put(toggled, checked);
+            tracker.setSelected(toggled, checked);
+            assertEquals(revision, root.getRevision());
+            assertEquals(repaintBySubtreeWalk(parents, overrides),
+                    repaintByTracker(parents, tracker));
+
+            TreeNode changed = leaves.get(round * 104_729 % leaves.size());
+            changed.setDownloaded(!changed.isDownloaded());
+            if (round % 3 == 0) {
+                TreeNode added = createLeaf("added" + round);
+                added.setDownloaded(round % 2 == 0);
+                changed.getParent().addChild(added);
+                leaves.add(added);
+            }
+            assertTrue(root.getRevision() > revision);
+            assertEquals(repaintBySubtreeWalk(parents, overrides),
+                    repaintByTracker(parents, tracker));
+        }
+    }
+
+    /** Checked and grayed state of every parent, walking subtrees as the old implementation did. */
+    private static List<Boolean> repaintBySubtreeWalk(List<TreeNode> parents,
+            Map<TreeNode, Boolean> overrides) {
+        List<Boolean> states = new ArrayList<>(parents.size() * 2);
+        for (TreeNode parent : parents) {
+            boolean[] state = new boolean[2];
+            walkLeaves(parent, overrides, state);
+            states.add(state[0]);
+            states.add(state[0] && state[1]);
+        }
+        return states;
+    }
+
+    private static List<Boolean> repaintByTracker(List<TreeNode> parents,
+            CheckStateTracker tracker) {
+        List<Boolean> states = new ArrayList<>(parents.size() * 2);
+        for (TreeNode parent : parents) {
+            states.add(tracker.isEffectivelyChecked(parent));
+            states.add(tracker.isEffectivelyGrayed(parent));
+        }
+        return states;
+    }
+
+    private static void walkLeaves(TreeNode node, Map<TreeNode, Boolean> overrides,
+            boolean[] state) {
+        if (node.isLeaf()) {
+            Boolean override = overrides.get(node);
+            state[(override != null ? override : node.isDownloaded()) ? 0 : 1] = true;
+            return;
+        }
+        for (TreeNode child : node.getChildren()) {
+            walkLeaves(child, overrides, state);
+        }
+    }
+
     // ------------------------------------------------------------------
     // Helpers
     // ------------------------------------------------------------------
@@ -0,0 +1,107 @@
+package org.ruyisdk.ruyi.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link EntityIndex}.
+ */
+public class EntityIndexTest {
+
+    private static final String SAMPLE = """
+                    {"ty":"entitylistoutput-v1","entity_type":"device","entity_id":"milkv-duo","display_name":"Milk-V Duo","related_refs":["device-variant:milkv-duo@64m","device-variant:milkv-duo@256m"],"reverse_refs":[]}
+                    {"ty":"entitylistoutput-v1","entity_type":"device-variant","entity_id":"milkv-duo@64m","related_refs":["cpu:sophgo-cv1800b"],"reverse_refs":["device:milkv-duo"],"data":{"device-variant":{"id":"64m","variant_name":"64M RAM"}}}
+                    {"ty":"entitylistoutput-v1","entity_type":"device-variant","entity_id":"milkv-duo@256m","related_refs":["cpu:sophgo-cv1800b","cpu:missing"],"reverse_refs":[]}
+                    {"ty":"entitylistoutput-v1","entity_type":"cpu","entity_id":"sophgo-cv1800b","related_refs":["uarch:xuantie-c906"],"reverse_refs":[]}
+                    {"ty":"entitylistoutput-v1","entity_type":"uarch","entity_id":"xuantie-c906","related_refs":[],"reverse_refs":[],"data":{"uarch":{"arch":"riscv64","riscv":{"isa":"rv64gc"}}}}
+                    {"ty":"entitylistoutput-v1","entity_type":"device","entity_id":"sipeed-lpi4a","display_name":"Sipeed LicheePi 4A","related_refs":[],"reverse_refs":[]}
+                    """;
+
+    // ------------------------------------------------------------------
+    // Lookup
+    // ------------------------------------------------------------------
+
+    @Test
+    public void partitionsEntitiesByType() {
+        EntityIndex index = EntityIndex.parse(SAMPLE);
+
+        assertEquals(6, index.size());
+        assertEquals(List.of("device", "device-variant", "cpu", "uarch"),
+                        List.copyOf(index.getEntityTypes()));
+        assertEquals(2, index.getEntities("device-variant").size());
+        assertTrue(index.getEntities("arch").isEmpty());
+
+        List<DeviceEntityInfo> devices = index.getDevices();
+        assertEquals(2, devices.size());
+        assertEquals("milkv-duo", devices.get(0).getEntityId());
+        assertEquals("sipeed-lpi4a", devices.get(1).getEntityId());
+
+        assertEquals(1, index.getEntities(UarchEntityInfo.class).size());
+    }
+
+    @Test
+    public void looksUpByReferenceAndById() {
+        EntityIndex index = EntityIndex.parse(SAMPLE);
+
+        EntityInfo byRef = index.get("device:milkv-duo");
+        assertTrue(byRef instanceof DeviceEntityInfo);
+        assertSame(byRef, index.get("device", "milkv-duo"));
+        assertEquals("device:milkv-duo", EntityIndex.toRef(byRef));
+
+        assertNull(index.get("device:unknown"));
+        assertNull(index.get("board", "milkv-duo"));
+    }
+
+    // ------------------------------------------------------------------
+    // Adjacency
+    // ------------------------------------------------------------------
+
+    @Test
+    public void resolvesRelatedRefsAndSkipsMissingTargets() {
+        EntityIndex index = EntityIndex.parse(SAMPLE);
+
+        List<EntityInfo> variants = index.getRelated("device:milkv-duo");
+        assertEquals(2, variants.size());
+        assertEquals("milkv-duo@64m", variants.get(0).getEntityId());
+
+        List<EntityInfo> cpus = index.getRelated("device-variant:milkv-duo@256m");
+        assertEquals(1, cpus.size());
+        assertEquals("sophgo-cv1800b", cpus.get(0).getEntityId());
+
+        assertTrue(index.getRelated("device:unknown").isEmpty());
+    }
+
+    @Test
+    public void reverseRefsIncludeInverseOfRelatedRefs() {
+        EntityIndex index = EntityIndex.parse(SAMPLE);
+
+        // Declared only as related_refs on the variants.
+        List<EntityInfo> users = index.getReverse("cpu:sophgo-cv1800b");
+        assertEquals(2, users.size());
+        assertEquals("milkv-duo@64m", users.get(0).getEntityId());
+        assertEquals("milkv-duo@256m", users.get(1).getEntityId());
+
+        // Declared in both directions; must not be duplicated.
+        assertEquals(1, index.getReverse("device-variant:milkv-duo@64m").size());
+        assertEquals(1, index.getReverse("uarch:xuantie-c906").size());
+    }
+
+    @Test
+    public void emptyIndex() {
+        assertEquals(0, EntityIndex.empty().size());
+        assertEquals(0, EntityIndex.parse("").size());
+        assertTrue(EntityIndex.of(List.of()).getDevices().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void adjacencyIsUnmodifiable() {
+        EntityIndex index = EntityIndex.parse(SAMPLE);
+        index.getRelated("device:milkv-duo").clear();
+    }
+}
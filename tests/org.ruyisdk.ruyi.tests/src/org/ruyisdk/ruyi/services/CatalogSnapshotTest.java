@@ -0,0 +1,118 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ruyisdk.ruyi.model.DeviceEntityInfo;
+
+/**
+ * Unit tests for {@link CatalogSnapshot}.
+ */
+public class CatalogSnapshotTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("catalog-snapshot");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // write / read
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void roundTripPreservesCatalog() throws IOException {
+        var stamp = new CatalogSnapshot.Stamp("0.50.0", 1234, 5678, "abc123");
+        var snapshot = new CatalogSnapshot(stamp,
+                List.of(new RuyiCli.PackageListEntryInfo("toolchain", "gnu-upstream",
+                        List.of(new RuyiCli.PackageVersionInfo("1.0.0", List.of("latest"), true),
+                                new RuyiCli.PackageVersionInfo("0.9.0", List.of(), false)))),
+                List.of(new DeviceEntityInfo("milkv-duo", "Milk-V Duo",
+                        List.of("device-variant:milkv-duo@64m"), List.of()),
+                        new DeviceEntityInfo("no-name", null, List.of(), List.of("x:y"))),
+                List.of(new RuyiCli.ToolchainInfo("gnu-upstream", List.of("1.0.0"),
+                        List.of("xthead"), true)),
+                List.of(new RuyiCli.EmulatorInfo("qemu-user-riscv", List.of("8.1.2"), List.of())));
+
+        var file = dir.resolve("sub").resolve("snapshot.bin");
+        snapshot.write(file);
+        var read = CatalogSnapshot.read(file);
+
+        assertEquals(stamp, read.getStamp());
+
+        assertEquals(1, read.getPackages().size());
+        var entry = read.getPackages().get(0);
+        assertEquals("toolchain", entry.getCategory());
+        assertEquals("gnu-upstream", entry.getName());
+        assertEquals(2, entry.getVersions().size());
+        assertEquals("1.0.0", entry.getVersions().get(0).getSemver());
+        assertEquals(List.of("latest"), entry.getVersions().get(0).getRemarks());
+        assertTrue(entry.getVersions().get(0).isInstalled());
+        assertFalse(entry.getVersions().get(1).isInstalled());
+
+        assertEquals(2, read.getDevices().size());
+        assertEquals("Milk-V Duo", read.getDevices().get(0).getDisplayName());
+        assertEquals(List.of("64m"), read.getDevices().get(0).getVariantNames());
+        assertNull(read.getDevices().get(1).getDisplayName());
+        assertEquals(List.of("x:y"), read.getDevices().get(1).getReverseRefs());
+
+        assertEquals(List.of("xthead"), read.getToolchains().get(0).getQuirks());
+        assertTrue(read.getToolchains().get(0).hasIncludedSysroot());
+        assertEquals("qemu-user-riscv", read.getEmulators().get(0).getName());
+    }
+
+    @Test
+    public void rewriteReplacesExistingFile() throws IOException {
+        var file = dir.resolve("snapshot.bin");
+        empty("first").write(file);
+        empty("second").write(file);
+
+        assertEquals("second", CatalogSnapshot.read(file).getStamp().repoCommit());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsCorruptFile() throws IOException {
+        var file = dir.resolve("snapshot.bin");
+        Files.writeString(file, "not a snapshot");
+        CatalogSnapshot.read(file);
+    }
+
+    // -----------------------------------------------------------------------
+    // Stamp
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void stampMatchesIgnoresVersionString() {
+        var stamp = new CatalogSnapshot.Stamp("0.50.0", 1, 2, "abc");
+
+        assertTrue(stamp.matches(new CatalogSnapshot.Stamp("", 1, 2, "abc")));
+        assertFalse(stamp.matches(new CatalogSnapshot.Stamp("0.50.0", 1, 3, "abc")));
+        assertFalse(stamp.matches(new CatalogSnapshot.Stamp("0.50.0", 1, 2, "def")));
+        assertFalse(stamp.matches(null));
+    }
+
+    private static CatalogSnapshot empty(String commit) {
+        return new CatalogSnapshot(new CatalogSnapshot.Stamp("", -1, -1, commit), List.of(),
+                List.of(), List.of(), List.of());
+    }
+}
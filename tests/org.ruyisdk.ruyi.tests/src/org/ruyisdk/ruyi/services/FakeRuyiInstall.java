@@ -0,0 +1,61 @@
+package org.ruyisdk.ruyi.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Assume;
+
+/**
+ * Temporary install directory whose {@code ruyi} is a shell script. The script answers
+ * {@code ruyi -V} with a supported version, records every other invocation and then runs the given
+ * body.
+ */
+final class FakeRuyiInstall implements AutoCloseable {
+
+    private final Path dir;
+
+    private FakeRuyiInstall(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Creates a fake install; skips the calling test where no POSIX shell is available.
+     *
+     * @param body shell script lines run for every command except {@code -V}
+     */
+    static FakeRuyiInstall create(String body) throws IOException {
+        Assume.assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        final var dir = Files.createTempDirectory("fake-ruyi");
+        final var binary = dir.resolve("ruyi");
+        Files.writeString(binary, String.format("""
+                        #!/bin/sh
+                        if [ "$1" = "-V" ]; then echo "Ruyi 0.50.0"; exit 0; fi
+                        echo "$*" >> "%s"
+                        %s
+                        """, dir.resolve("invocations"), body));
+        Files.setPosixFilePermissions(binary, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return new FakeRuyiInstall(dir);
+    }
+
+    String getInstallDir() {
+        return dir.toString();
+    }
+
+    /** Returns the arguments of every recorded invocation, one line each. */
+    List<String> getInvocations() throws IOException {
+        final var log = dir.resolve("invocations");
+        return Files.exists(log) ? Files.readAllLines(log) : List.of();
+    }
+
+    @Override
+    public void close() throws IOException {
+        RuyiCliVersionSupport.invalidateVersionCache(dir.toString());
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PackageCatalog}.
+ */
+public class PackageCatalogTest {
+
+    private static final String SAMPLE = """
+                    {"ty":"pkglistoutput-v1","category":"toolchain","name":"gnu-upstream","vers":[{"semver":"1.0.0","remarks":["latest"],"is_installed":true,"pm":{"toolchain":{"quirks":["xthead"],"included_sysroot":"riscv64-plct-linux-gnu/sysroot"}}}]}
+                    {"ty":"pkglistoutput-v1","category":"toolchain","name":"llvm-upstream","vers":[{"semver":"17.0.0","pm":{"toolchain":{}}}]}
+                    {"ty":"pkglistoutput-v1","category":"emulator","name":"qemu-user-riscv","vers":[{"semver":"8.1.2","pm":{"emulator":{"quirks":["xthead"]}}}]}
+                    {"ty":"pkglistoutput-v1","category":"source","name":"coremark","vers":[{"semver":"1.0.1"}]}
+                    {"ty":"log-v1","msg":"ignored"}
+                    """;
+
+    @Test
+    public void keepsPackagesInOutputOrder() {
+        var catalog = PackageCatalog.parse(SAMPLE);
+
+        assertEquals(List.of("gnu-upstream", "llvm-upstream", "qemu-user-riscv", "coremark"),
+                catalog.getPackages().stream().map(RuyiCli.PackageListEntryInfo::getName)
+                        .toList());
+    }
+
+    @Test
+    public void derivesToolchainsAndEmulatorsFromSameListing() {
+        var catalog = PackageCatalog.parse(SAMPLE);
+
+        assertEquals(2, catalog.getToolchains().size());
+        var gnu = catalog.getToolchains().get(0);
+        assertEquals("gnu-upstream", gnu.getName());
+        assertEquals(List.of("xthead"), gnu.getQuirks());
+        assertTrue(gnu.hasIncludedSysroot());
+        assertFalse(catalog.getToolchains().get(1).hasIncludedSysroot());
+
+        assertEquals(1, catalog.getEmulators().size());
+        assertEquals(List.of("8.1.2"), catalog.getEmulators().get(0).getVersions());
+    }
+
+    @Test
+    public void matchesCategorySpecificParsers() {
+        var catalog = PackageCatalog.parse(SAMPLE);
+
+        var toolchains = RuyiCli.parseToolchainsFromString(SAMPLE);
+        assertEquals(toolchains.size(), catalog.getToolchains().size());
+        for (int i = 0; i < toolchains.size(); i++) {
+            assertEquals(toolchains.get(i).getName(), catalog.getToolchains().get(i).getName());
+            assertEquals(toolchains.get(i).getVersions(),
+                    catalog.getToolchains().get(i).getVersions());
+        }
+        assertEquals(RuyiCli.parseEmulatorsFromString(SAMPLE).get(0).getQuirks(),
+                catalog.getEmulators().get(0).getQuirks());
+    }
+
+    @Test
+    public void buildsPackageTree() {
+        var tree = PackageCatalog.parse(SAMPLE).getPackageTree();
+
+        assertEquals(3, tree.size());
+        assertEquals("toolchain", tree.get(0).getName());
+        var version = tree.get(0).getPackages().get(0).getVersions().get(0);
+        assertEquals("1.0.0 [latest]", version.getDisplayName());
+        assertEquals("gnu-upstream(1.0.0)", version.getPackageRef());
+        assertTrue(version.isInstalled());
+    }
+
+    @Test
+    public void blankOutputGivesEmptyCatalog() {
+        var catalog = PackageCatalog.parse("");
+
+        assertTrue(catalog.getPackages().isEmpty());
+        assertTrue(catalog.getToolchains().isEmpty());
+        assertTrue(catalog.getPackageTree().isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PorcelainObjectStream}.
+ */
+public class PorcelainObjectStreamTest {
+
+    // -----------------------------------------------------------------------
+    // objects
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void emitsEachObjectAsSoonAsItIsComplete() {
+        final var objects = new ArrayList<JSONObject>();
+        final var stream = PorcelainObjectStream.objects(objects::add);
+
+        stream.accept("{\"ty\":\"a\",\"n\":1}");
+        assertEquals(1, objects.size());
+        stream.accept("{\"ty\":\"a\",");
+        assertEquals(1, objects.size());
+        stream.accept("\"n\":2}");
+        assertEquals(2, objects.size());
+        assertEquals(2, objects.get(1).getInt("n"));
+    }
+
+    @Test
+    public void skipsTextOutsideObjects() {
+        final var objects = new ArrayList<JSONObject>();
+        final var stream = PorcelainObjectStream.objects(objects::add);
+
+        stream.accept("warning: something happened");
+        stream.accept("{\"n\":1} trailing {\"n\":2}");
+        stream.accept("done");
+
+        assertEquals(2, objects.size());
+    }
+
+    @Test
+    public void ignoresBracesInsideStrings() {
+        final var objects = new ArrayList<JSONObject>();
+        final var stream = PorcelainObjectStream.objects(objects::add);
+
+        stream.accept("{\"s\":\"} { \\\" }\",");
+        stream.accept("\"t\":\"{\"}");
+
+        assertEquals(1, objects.size());
+        assertEquals("} { \" }", objects.get(0).getString("s"));
+        assertEquals("{", objects.get(0).getString("t"));
+    }
+
+    @Test
+    public void dropsMalformedAndTruncatedObjects() {
+        final var objects = new ArrayList<JSONObject>();
+        final var stream = PorcelainObjectStream.objects(objects::add);
+
+        stream.accept("{not json}");
+        stream.accept("{\"n\":1}");
+        stream.accept("{\"n\":");
+
+        assertEquals(1, objects.size());
+    }
+
+    // -----------------------------------------------------------------------
+    // typed streams
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void newsItemsSpanMultipleLines() {
+        final var output = """
+                {"ty":"newsitem-v1","id":"2024-01-01-hello","ord":1,"is_read":true,
+                 "langs":[{"lang":"en_US","display_title":"Hello"}]}
+                log line between objects
+                {"ty":"newsitem-v1","id":"2024-02-01-again","ord":2,"is_read":false,"langs":[]}
+                """;
+        final List<RuyiCli.NewsListItemInfo> items = new ArrayList<>();
+        final var stream = PorcelainObjectStream.newsItems(items::add);
+        output.lines().forEach(stream);
+
+        assertEquals(2, items.size());
+        assertEquals("2024-01-01-hello", items.get(0).getId());
+        assertEquals("Hello", items.get(0).getTitle());
+        assertEquals(Integer.valueOf(2), items.get(1).getOrd());
+    }
+
+    @Test
+    public void newsItemsSkipOtherObjects() {
+        final List<RuyiCli.NewsListItemInfo> items = new ArrayList<>();
+        final var stream = PorcelainObjectStream.newsItems(items::add);
+
+        stream.accept("{\"ty\":\"pkglistoutput-v1\",\"category\":\"a\",\"name\":\"b\"}");
+        stream.accept("{\"ty\":\"newsitem-v1\",\"id\":\"2024-01-01-hello\",\"ord\":1,"
+                + "\"is_read\":false,\"langs\":[]}");
+
+        assertEquals(1, items.size());
+        assertEquals("2024-01-01-hello", items.get(0).getId());
+        assertEquals(Boolean.FALSE, items.get(0).isRead());
+    }
+}
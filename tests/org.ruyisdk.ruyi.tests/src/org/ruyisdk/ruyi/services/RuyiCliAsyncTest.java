@@ -0,0 +1,73 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RuyiCliAsync}.
+ */
+public class RuyiCliAsyncTest {
+
+    // ------------------------------------------------------------------
+    // Fan-out
+    // ------------------------------------------------------------------
+
+    @Test
+    public void independentCallsRunConcurrently() {
+        CountDownLatch started = new CountDownLatch(3);
+        List<CompletableFuture<Integer>> futures = List.of(1, 2, 3).stream()
+                .map(i -> RuyiCliAsync.supply(() -> {
+                    started.countDown();
+                    await(started);
+                    return i;
+                })).toList();
+
+        assertEquals(List.of(1, 2, 3), futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    // ------------------------------------------------------------------
+    // Failures
+    // ------------------------------------------------------------------
+
+    @Test
+    public void failureUnwrapsToOriginalException() {
+        var failure = RuyiCliException.invalidArgument("bad");
+        var future = RuyiCliAsync.supply(() -> {
+            throw failure;
+        }).thenApply(value -> value);
+
+        try {
+            future.join();
+            fail("expected failure");
+        } catch (CompletionException e) {
+            assertSame(failure, RuyiCliAsync.unwrap(e));
+        }
+    }
+
+    @Test
+    public void unwrapStripsCompletionException() {
+        var failure = RuyiCliException.cancelled();
+
+        assertSame(failure, RuyiCliAsync.unwrap(new CompletionException(failure)));
+        assertSame(failure, RuyiCliAsync.unwrap(failure));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("calls did not overlap");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for the event-driven completion of {@link RuyiCliExecutor}.
+ */
+public class RuyiCliExecutorAsyncTest {
+
+    private FakeRuyiInstall ruyi;
+
+    @After
+    public void tearDown() throws IOException {
+        if (ruyi != null) {
+            ruyi.close();
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // executeAsync
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void asyncCompletesWithExitCodeAndOutput() throws Exception {
+        ruyi = FakeRuyiInstall.create("""
+                echo "hello"
+                exit 3
+                """);
+
+        var result = executeAsync(0, "list").get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, result.getExitCode());
+        assertEquals("hello" + System.lineSeparator(), result.getOutput());
+    }
+
+    @Test
+    public void asyncTimesOutWithoutWaitingForProcess() throws Exception {
+        ruyi = FakeRuyiInstall.create("sleep 30");
+
+        var start = System.nanoTime();
+        try {
+            executeAsync(1, "list").get(10, TimeUnit.SECONDS);
+            fail("expected timeout");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RuyiCliException);
+            assertTrue(e.getCause().getMessage().contains("timed out"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+    }
+
+    // -----------------------------------------------------------------------
+    // blocking execute
+    // -----------------------------------------------------------------------
+
+    @Test
+    public void blockingExecuteReturnsPromptly() throws IOException {
+        ruyi = FakeRuyiInstall.create("echo done");
+
+        var start = System.nanoTime();
+        var result = RuyiCliExecutor.execute(ruyi.getInstallDir(), null, null, null, null, 10,
+                RuyiCliExecutor.OutputOptions.MERGED, "list");
+
+        assertEquals(0, result.getExitCode());
+        assertEquals("done" + System.lineSeparator(), result.getOutput());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    public void blockingExecuteRethrowsTimeout() throws IOException {
+        ruyi = FakeRuyiInstall.create("sleep 30");
+
+        try {
+            RuyiCliExecutor.execute(ruyi.getInstallDir(), null, null, null, null, 1,
+                    RuyiCliExecutor.OutputOptions.MERGED, "list");
+            fail("expected timeout");
+        } catch (RuyiCliException e) {
+            assertTrue(e.getMessage().contains("timed out"));
+        }
+    }
+
+    private CompletableFuture<RuyiExecResult> executeAsync(int timeoutSeconds, String... args) {
+        return RuyiCliExecutor.executeAsync(ruyi.getInstallDir(), null, null, null, null,
+                timeoutSeconds, RuyiCliExecutor.OutputOptions.MERGED, args);
+    }
+}
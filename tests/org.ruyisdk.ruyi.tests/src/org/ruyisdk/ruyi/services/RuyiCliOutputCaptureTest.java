@@ -0,0 +1,85 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for stdout/stderr capture options of {@link RuyiCliRequest}.
+ */
+public class RuyiCliOutputCaptureTest {
+
+    private FakeRuyiInstall ruyi;
+
+    @Before
+    public void setUp() throws IOException {
+        ruyi = FakeRuyiInstall.create("""
+                        i=1
+                        while [ $i -le 1000 ]; do echo "out $i"; i=$((i + 1)); done
+                        echo "err 1" >&2
+                        echo "err 2" >&2
+                        printf 'cr 1\\rcr 2\\r\\nlast'
+                        """);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (ruyi != null) {
+            ruyi.close();
+        }
+    }
+
+    @Test
+    public void mergedOutputKeepsEverythingWithoutCallback() {
+        var result = builder().build().execute();
+
+        assertTrue(result.getOutput().contains("out 1" + System.lineSeparator()));
+        assertTrue(result.getOutput().contains("err 2"));
+        assertEquals("", result.getErrorOutput());
+    }
+
+    @Test
+    public void separateErrorStreamSplitsOutput() {
+        var result = builder().separateErrorStream(true).build().execute();
+
+        assertFalse(result.getOutput().contains("err"));
+        assertEquals("err 1" + System.lineSeparator() + "err 2" + System.lineSeparator(),
+                result.getErrorOutput());
+    }
+
+    @Test
+    public void callbackReceivesAllLinesButResultKeepsTail() {
+        List<String> lines = new ArrayList<>();
+        var result = builder().separateErrorStream(true).lineCallback(lines::add)
+                .outputTailLines(3).build().execute();
+
+        assertEquals(1003, lines.size());
+        assertEquals("out 1", lines.get(0));
+        assertEquals(List.of("cr 1", "cr 2", "last"), lines.subList(1000, 1003));
+
+        var kept = result.getOutput().lines().toList();
+        assertEquals(List.of("... (1000 earlier lines omitted)", "cr 1", "cr 2", "last"), kept);
+    }
+
+    @Test
+    public void callbackDefaultsToBoundedTail() {
+        var result = builder().lineCallback(line -> {
+        }).build().execute();
+
+        var kept = result.getOutput().lines().toList();
+        assertTrue(kept.get(0).endsWith("earlier lines omitted)"));
+        assertTrue(kept.size() < 1000);
+        assertEquals("last", kept.get(kept.size() - 1));
+    }
+
+    private RuyiCliRequest.Builder builder() {
+        return RuyiCliRequest.builder().ruyiInstallDir(ruyi.getInstallDir()).command("install");
+    }
+}
@@ -0,0 +1,70 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Regression tests for parsing large synthetic package lists.
+ */
+public class RuyiCliParsingLargeInputTest {
+
+    private static final int PACKAGES = 20_000;
+    private static final int VERSIONS_PER_PACKAGE = 3;
+
+    @Test
+    public void parsesLargePackageList() {
+        String sample = syntheticPackageList(PACKAGES);
+
+        var categories = RuyiCli.parsePackageTreeFromString(sample);
+
+        int packages = 0;
+        int versions = 0;
+        for (var category : categories) {
+            packages += category.getPackages().size();
+            for (var pkg : category.getPackages()) {
+                versions += pkg.getVersions().size();
+            }
+        }
+        assertEquals(4, categories.size());
+        assertEquals(PACKAGES, packages);
+        assertEquals(PACKAGES * VERSIONS_PER_PACKAGE, versions);
+    }
+
+    @Test
+    public void bracesInRemarksDoNotDesynchronizeLargeInput() {
+        String sample = syntheticPackageList(1_000);
+
+        var toolchains = RuyiCli.parseToolchainsFromString(sample);
+        assertEquals(250, toolchains.size());
+        assertEquals("pkg-0", toolchains.get(0).getName());
+        assertEquals(VERSIONS_PER_PACKAGE, toolchains.get(0).getVersions().size());
+    }
+
+    /**
+     * Builds porcelain output with interleaved log lines and remarks containing braces and escaped
+     * quotes, spread evenly over four categories.
+     */
+    private static String syntheticPackageList(int count) {
+        String[] categories = {"toolchain", "emulator", "source", "board-image"};
+        var sb = new StringBuilder(count * 260);
+        for (int i = 0; i < count; i++) {
+            if (i % 100 == 0) {
+                sb.append("info: fetched \"batch ").append(i).append("\n");
+            }
+            sb.append("{\"ty\":\"pkglistoutput-v1\",\"category\":\"")
+                    .append(categories[i % categories.length]).append("\",\"name\":\"pkg-")
+                    .append(i).append("\",\"vers\":[");
+            for (int v = 0; v < VERSIONS_PER_PACKAGE; v++) {
+                if (v > 0) {
+                    sb.append(',');
+                }
+                sb.append("{\"semver\":\"").append(v).append(".0.").append(i)
+                        .append("\",\"remarks\":[\"{note} \\\"q\\\" }\"],\"is_installed\":")
+                        .append(v == 0).append('}');
+            }
+            sb.append("]}\n");
+        }
+        return sb.toString();
+    }
+}
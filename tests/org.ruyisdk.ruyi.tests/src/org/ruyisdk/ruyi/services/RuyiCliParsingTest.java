@@ -108,6 +108,41 @@ public class RuyiCliParsingTest {
         assertFalse(hasD);
     }
 
+    /**
+     * Braces and escaped quotes inside string literals must not split or merge objects.
+     */
+    @Test
+    public void parseIgnoresBracesInsideStrings() {
+        String sample = """
+                        {"ty":"pkglistoutput-v1","category":"toolchain","name":"tc-a","vers":[{"semver":"1.0.0","remarks":["see {docs}","}}"]}]}
+                        {"ty":"pkglistoutput-v1","category":"toolchain","name":"tc-b","vers":[{"semver":"2.0.0","remarks":["quote \\" {"]}]}
+                        """;
+
+        var categories = RuyiCli.parsePackageTreeFromString(sample);
+        assertEquals(1, categories.size());
+
+        var packages = categories.get(0).getPackages();
+        assertEquals(2, packages.size());
+        assertEquals("1.0.0 [see {docs}][}}]", packages.get(0).getVersions().get(0).getDisplayName());
+        assertEquals("tc-b", packages.get(1).getName());
+        assertEquals("2.0.0 [quote \" {]", packages.get(1).getVersions().get(0).getDisplayName());
+    }
+
+    /**
+     * Quotes in log text between objects must not hide the objects that follow.
+     */
+    @Test
+    public void parseIgnoresQuotesOutsideObjects() {
+        String sample = """
+                        warn: "unterminated
+                        {"ty":"newsitem-v1","id":"n1","ord":1,"is_read":false,"langs":[{"lang":"en_US","display_title":"Title with } brace","content":"{"}]}
+                        """;
+
+        List<RuyiCli.NewsListItemInfo> items = RuyiCli.parseNewsListFromString(sample);
+        assertEquals(1, items.size());
+        assertEquals("Title with } brace", items.get(0).getTitle());
+    }
+
     /**
      * Parses concatenated news list objects and ignores unrelated types.
      */
@@ -181,6 +216,25 @@ public class RuyiCliParsingTest {
         }
     }
 
+    /**
+     * Keeps every news item of a batch read, in output order.
+     */
+    @Test
+    public void parseNewsReadListReturnsEveryItem() {
+        String sample = """
+                        {"ty":"newsitem-v1","id":"2024-02-01-second","ord":2,"is_read":true,"langs":[{"lang":"en_US","display_title":"Second","content":"Second Content"}]}
+                        {"ty":"newsitem-v1","id":"2024-01-14-first","ord":1,"is_read":true,"langs":[{"lang":"en_US","display_title":"First","content":"First Content"}]}
+                        """;
+
+        List<RuyiCli.NewsReadResult> results = RuyiCli.parseNewsReadListFromString(sample);
+        assertEquals(2, results.size());
+        assertEquals("2024-02-01-second", results.get(0).getId());
+        assertEquals("Second Content", results.get(0).getContent());
+        assertEquals("2024-01-14-first", results.get(1).getId());
+        assertEquals("First Content", results.get(1).getContent());
+        assertEquals(List.of(), RuyiCli.parseNewsReadListFromString(""));
+    }
+
     @Test
     public void parseToolchainsExtractsQuirksFromMetadata() {
         String sample = """
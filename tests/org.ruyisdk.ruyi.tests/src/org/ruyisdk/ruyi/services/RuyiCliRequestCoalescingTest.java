@@ -0,0 +1,80 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that identical concurrent read-only {@link RuyiCliRequest}s share a single ruyi process.
+ */
+public class RuyiCliRequestCoalescingTest {
+
+    private FakeRuyiInstall ruyi;
+
+    @Before
+    public void setUp() throws IOException {
+        ruyi = FakeRuyiInstall.create("""
+                        sleep 1
+                        echo "output of $*"
+                        """);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (ruyi != null) {
+            ruyi.close();
+        }
+    }
+
+    @Test
+    public void concurrentIdenticalQueriesShareOneProcess() throws Exception {
+        List<String> outputs = runConcurrently(3, () -> RuyiCliRequest.builder()
+                        .ruyiInstallDir(ruyi.getInstallDir()).porcelain(true).list().profiles()
+                        .end().build().execute().getOutput());
+
+        assertEquals(1, ruyi.getInvocations().size());
+        for (String output : outputs) {
+            assertEquals("output of --porcelain list profiles", output.strip());
+        }
+    }
+
+    @Test
+    public void differentQueriesAndMutatingCommandsAreNotShared() throws Exception {
+        runConcurrently(2, () -> RuyiCliRequest.builder().ruyiInstallDir(ruyi.getInstallDir())
+                        .update().end().build().execute().getOutput());
+        runConcurrently(1, () -> RuyiCliRequest.builder().ruyiInstallDir(ruyi.getInstallDir())
+                        .list().profiles().end().build().execute().getOutput());
+        runConcurrently(1, () -> RuyiCliRequest.builder().ruyiInstallDir(ruyi.getInstallDir())
+                        .list().toolchains().end().build().execute().getOutput());
+
+        assertEquals(4, ruyi.getInvocations().size());
+    }
+
+    private static List<String> runConcurrently(int count, Callable<String> task)
+                    throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(pool.submit(task));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(20, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RuyiCliResultCache}.
+ */
+public class RuyiCliResultCacheTest {
+
+    private FakeRuyiInstall ruyi;
+
+    @Before
+    public void setUp() throws IOException {
+        RuyiCliResultCache.invalidate();
+        ruyi = FakeRuyiInstall.create("""
+                        echo "output of $*"
+                        """);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RuyiCliResultCache.invalidate();
+        if (ruyi != null) {
+            ruyi.close();
+        }
+    }
+
+    @Test
+    public void readOnlyQueryIsServedFromCacheUntilInvalidated() throws IOException {
+        assertEquals("output of --porcelain list profiles", listProfiles().strip());
+        assertEquals("output of --porcelain list profiles", listProfiles().strip());
+        assertEquals(1, ruyi.getInvocations().size());
+
+        final long generation = RuyiCliResultCache.getGeneration();
+        RuyiCliResultCache.invalidate();
+        assertTrue(RuyiCliResultCache.getGeneration() > generation);
+
+        listProfiles();
+        assertEquals(2, ruyi.getInvocations().size());
+    }
+
+    @Test
+    public void distinctQueriesAreCachedSeparately() throws IOException {
+        listProfiles();
+        RuyiCliResultCache.getOutput(RuyiCliRequest.builder().ruyiInstallDir(ruyi.getInstallDir())
+                        .porcelain(true).list().toolchains().end().build());
+        listProfiles();
+
+        assertEquals(2, ruyi.getInvocations().size());
+    }
+
+    @Test
+    public void mutatingRequestsAreNeverCached() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            RuyiCliResultCache.getOutput(RuyiCliRequest.builder()
+                            .ruyiInstallDir(ruyi.getInstallDir()).update().end().build());
+        }
+        assertEquals(2, ruyi.getInvocations().size());
+    }
+
+    private String listProfiles() {
+        return RuyiCliResultCache.getOutput(RuyiCliRequest.builder()
+                        .ruyiInstallDir(ruyi.getInstallDir()).porcelain(true).list().profiles()
+                        .end().build());
+    }
+}
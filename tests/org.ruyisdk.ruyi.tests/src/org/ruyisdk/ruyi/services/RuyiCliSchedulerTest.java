@@ -0,0 +1,173 @@
+package org.ruyisdk.ruyi.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RuyiCliScheduler} admission and {@link RuyiCliRequest#isReadOnly()}
+ * classification.
+ */
+public class RuyiCliSchedulerTest {
+
+    // ------------------------------------------------------------------
+    // Request classification
+    // ------------------------------------------------------------------
+
+    @Test
+    public void listingAndLookupCommandsAreReadOnly() {
+        assertTrue(RuyiCliRequest.builder().list().profiles().end().build().isReadOnly());
+        assertTrue(RuyiCliRequest.builder().entity().list("device").end().build().isReadOnly());
+        assertTrue(RuyiCliRequest.builder().news().listUnread().end().build().isReadOnly());
+        assertTrue(RuyiCliRequest.builder().config().get("repo.remote").end().build()
+                        .isReadOnly());
+        assertTrue(RuyiCliRequest.builder().telemetry().status().end().build().isReadOnly());
+    }
+
+    @Test
+    public void mutatingCommandsAreNotReadOnly() {
+        assertFalse(RuyiCliRequest.builder().news().read("1").end().build().isReadOnly());
+        assertFalse(RuyiCliRequest.builder().news().read(List.of("1", "2")).end().build()
+                        .isReadOnly());
+        assertFalse(RuyiCliRequest.builder().install().atom("gnu-upstream").end().build()
+                        .isReadOnly());
+        assertFalse(RuyiCliRequest.builder().uninstall().atom("gnu-upstream").end().build()
+                        .isReadOnly());
+        assertFalse(RuyiCliRequest.builder().update().end().build().isReadOnly());
+        assertFalse(RuyiCliRequest.builder().config().set("repo.remote", "x").end().build()
+                        .isReadOnly());
+        assertFalse(RuyiCliRequest.builder().args("device", "provision").build().isReadOnly());
+    }
+
+    // ------------------------------------------------------------------
+    // Admission
+    // ------------------------------------------------------------------
+
+    @Test
+    public void readersAreCappedAtMaximumConcurrency() throws Exception {
+        final int tasks = RuyiCliScheduler.MAX_CONCURRENT_READERS * 3;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(tasks);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(pool.submit(() -> RuyiCliScheduler.run(true, null, () -> {
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    sleep(30);
+                    active.decrementAndGet();
+                    return null;
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(peak.get() > 1);
+        assertTrue(peak.get() <= RuyiCliScheduler.MAX_CONCURRENT_READERS);
+        assertEquals(0, RuyiCliScheduler.getQueueDepth());
+        assertEquals(0, RuyiCliScheduler.getRunningCount());
+    }
+
+    @Test
+    public void writerExcludesReadersAndReportsQueueDepth() throws Exception {
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        List<String> order = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = pool.submit(() -> RuyiCliScheduler.run(false, null, () -> {
+                writerStarted.countDown();
+                await(releaseWriter);
+                synchronized (order) {
+                    order.add("writer");
+                }
+                return null;
+            }));
+            assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+
+            Future<?> reader = pool.submit(() -> RuyiCliScheduler.run(true, null, () -> {
+                synchronized (order) {
+                    order.add("reader");
+                }
+                return null;
+            }));
+            waitForQueueDepth(1);
+            assertEquals(1, RuyiCliScheduler.getRunningCount());
+
+            releaseWriter.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+            reader.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(List.of("writer", "reader"), order);
+        assertEquals(0, RuyiCliScheduler.getQueueDepth());
+    }
+
+    @Test
+    public void fetchOnlyInstallsRunAlongsideWriter() throws Exception {
+        assertTrue(RuyiCliRequest.builder().install().atom("gnu-upstream").fetchOnly(true).end()
+                        .build().isFetchOnly());
+        assertFalse(RuyiCliRequest.builder().install().atom("gnu-upstream").end().build()
+                        .isFetchOnly());
+
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = pool.submit(() -> RuyiCliScheduler.run(false, null, () -> {
+                writerStarted.countDown();
+                await(releaseWriter);
+                return null;
+            }));
+            assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+
+            Future<String> fetch = pool.submit(() -> RuyiCliScheduler.runFetch(null, () -> "done"));
+            assertEquals("done", fetch.get(5, TimeUnit.SECONDS));
+
+            releaseWriter.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, RuyiCliScheduler.getRunningCount());
+    }
+
+    private static void waitForQueueDepth(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (RuyiCliScheduler.getQueueDepth() != expected) {
+            assertTrue("queue depth never reached " + expected,
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,8 +6,16 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.ruyisdk.core.ruyi.model.RuyiVersion;
+import org.junit.Assume;
 import org.junit.Test;
 
 /**
@@ -61,4 +69,55 @@ public class RuyiCliVersionSupportTest {
         }
         assertTrue(threw);
     }
+
+    @Test
+    public void cachedInstalledVersionRunsBinaryOnlyWhenItChanges() throws IOException {
+        Assume.assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+
+        Path dir = Files.createTempDirectory("ruyi-version-cache");
+        try {
+            Path binary = writeFakeRuyi(dir, "0.50.0");
+            String installDir = dir.toString();
+
+            assertEquals("0.50.0",
+                    RuyiCliVersionSupport.getCachedInstalledVersion(installDir).toString());
+            assertEquals("0.50.0",
+                    RuyiCliVersionSupport.getCachedInstalledVersion(installDir).toString());
+            assertEquals(1, countInvocations(dir));
+
+            // Replacing the binary must be noticed without explicit invalidation.
+            writeFakeRuyi(dir, "0.51.10");
+            Files.setLastModifiedTime(binary,
+                    FileTime.fromMillis(Files.getLastModifiedTime(binary).toMillis() + 2000));
+            assertEquals("0.51.10",
+                    RuyiCliVersionSupport.getCachedInstalledVersion(installDir).toString());
+            assertEquals(2, countInvocations(dir));
+
+            RuyiCliVersionSupport.invalidateVersionCache(installDir);
+            RuyiCliVersionSupport.getCachedInstalledVersion(installDir);
+            assertEquals(3, countInvocations(dir));
+        } finally {
+            RuyiCliVersionSupport.invalidateVersionCache(dir.toString());
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static Path writeFakeRuyi(Path dir, String version) throws IOException {
+        Path binary = dir.resolve("ruyi");
+        Files.writeString(binary, String.format("""
+                        #!/bin/sh
+                        echo x >> "%s"
+                        echo "Ruyi %s"
+                        """, dir.resolve("invocations"), version));
+        Files.setPosixFilePermissions(binary, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return binary;
+    }
+
+    private static long countInvocations(Path dir) throws IOException {
+        try (Stream<String> lines = Files.lines(dir.resolve("invocations"))) {
+            return lines.count();
+        }
+    }
 }